@@ -0,0 +1,31 @@
+package com.zscp.master.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassUtil反射调用的基准测试
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClassUtilBenchmark {
+
+    private Object target = "master";
+    private Object[] args = new Object[]{"util"};
+    private Object[] trimArgs = new Object[]{"  masterutil  "};
+
+    @Benchmark
+    public Object invokeByName() throws Exception {
+        return ClassUtil.invoke(target, "concat", args);
+    }
+
+    @Benchmark
+    public Object invokeStatic() throws Exception {
+        return ClassUtil.invoke("com.zscp.master.util.StringUtil.trim", trimArgs);
+    }
+}
@@ -0,0 +1,82 @@
+package com.zscp.master.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DateUtils解析与格式化的基准测试
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateUtilsBenchmark {
+
+    private String fullStr = "2016-12-21 10:20:30";
+    private String smallStr = "2016-12-21";
+    private String keyStr = "161221102030";
+    private Date date = new Date(1482286830000L);
+    private long[] timestamps = new long[1000];
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = 1482286830000L + i * 1000L;
+        }
+    }
+
+    @Benchmark
+    public Date parseFull() {
+        return DateUtils.parse(fullStr);
+    }
+
+    @Benchmark
+    public Date parseSmall() {
+        return DateUtils.parse(smallStr, DateUtils.DATE_SMALL_STR);
+    }
+
+    @Benchmark
+    public Date parseKey() {
+        return DateUtils.parse(keyStr, DateUtils.DATE_KEY_STR);
+    }
+
+    @Benchmark
+    public long parseFullTimestamp() {
+        return DateUtils.dateToUnixTimestamp(fullStr);
+    }
+
+    @Benchmark
+    public String nowTime() {
+        return DateUtils.getNowTime();
+    }
+
+    @Benchmark
+    public String formatDate() {
+        return DateUtils.formatDate(date);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public String[] formatTimestampsOneByOne() {
+        String[] result = new String[timestamps.length];
+        for (int i = 0; i < timestamps.length; i++) {
+            result[i] = DateUtils.unixTimestampToDate(timestamps[i], DateUtils.DATE_FULL_STR);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public String[] formatTimestampsBatch() {
+        return DateUtils.unixTimestampToDate(timestamps, DateUtils.DATE_FULL_STR);
+    }
+
+    @Benchmark
+    public String formatDateTime() {
+        return DateUtils.formatDateTime(date);
+    }
+}
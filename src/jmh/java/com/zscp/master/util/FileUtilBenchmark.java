@@ -0,0 +1,57 @@
+package com.zscp.master.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileUtil文件操作的基准测试
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileUtilBenchmark {
+
+    @Param({"65536", "16777216"})
+    private int size;
+
+    private File file;
+
+    @Setup
+    public void setup() throws IOException {
+        file = File.createTempFile("masterutil-bench", ".bin");
+        byte[] data = new byte[size];
+        new Random(42).nextBytes(data);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(data);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtil.deleteFile(file);
+    }
+
+    @Benchmark
+    public String fileMD5() throws IOException {
+        return FileUtil.fileMD5(file);
+    }
+
+    @Benchmark
+    public String fileDigestSha256() throws IOException {
+        return FileUtil.fileDigest(file, "SHA-256");
+    }
+
+    @Benchmark
+    public String fileChunkDigest() throws IOException {
+        return FileUtil.fileChunkDigest(file, "MD5", 4 * 1024 * 1024, ForkJoinPool.commonPool()).getRoot();
+    }
+}
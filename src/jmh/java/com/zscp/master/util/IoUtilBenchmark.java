@@ -0,0 +1,77 @@
+package com.zscp.master.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IoUtil流拷贝的基准测试
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IoUtilBenchmark {
+
+    @Param({"4096", "1048576"})
+    private int size;
+
+    private byte[] data;
+    private File source;
+    private File target;
+
+    @Setup
+    public void setup() throws IOException {
+        data = new byte[size];
+        new Random(42).nextBytes(data);
+        source = File.createTempFile("masterutil-bench", ".src");
+        target = File.createTempFile("masterutil-bench", ".dst");
+        try (FileOutputStream out = new FileOutputStream(source)) {
+            out.write(data);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtil.deleteFile(source);
+        FileUtil.deleteFile(target);
+    }
+
+    @Benchmark
+    public long copy() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        return IoUtil.copy(new ByteArrayInputStream(data), out);
+    }
+
+    @Benchmark
+    public long copyByNIO() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        return IoUtil.copyByNIO(new ByteArrayInputStream(data), out, IoUtil.DEFAULT_BUFFER_SIZE, null);
+    }
+
+    @Benchmark
+    public long copyFileStream() throws IOException {
+        try (FileInputStream in = new FileInputStream(source); FileOutputStream out = new FileOutputStream(target)) {
+            return IoUtil.copy(in, out);
+        }
+    }
+
+    @Benchmark
+    public long copyToBufferedFileStream() throws IOException {
+        try (InputStream in = new ByteArrayInputStream(data); OutputStream out = new BufferedOutputStream(new FileOutputStream(target))) {
+            return IoUtil.copy(in, out);
+        }
+    }
+}
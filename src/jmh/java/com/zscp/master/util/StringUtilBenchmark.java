@@ -0,0 +1,49 @@
+package com.zscp.master.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StringUtil常用方法的基准测试
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringUtilBenchmark {
+
+    private String template = "user {} login from {} at {}, result: {}";
+    private String escapedTemplate = "this is \\{} for {}, path \\\\{} end";
+    private byte[] digest = {(byte) 0xe1, 0x0a, (byte) 0xdc, 0x39, 0x49, (byte) 0xba, 0x59, (byte) 0xab,
+            (byte) 0xbe, 0x56, (byte) 0xe0, 0x57, (byte) 0xf2, 0x0f, (byte) 0x88, 0x3e};
+    private String csvLine = "1001,张三,13800138000,zhangsan@example.com,2016-12-21 10:20:30,北京市,100000";
+
+    @Benchmark
+    public String format() {
+        return StringUtil.format(template, "zhangsan", "127.0.0.1", 1482286830000L, true);
+    }
+
+    @Benchmark
+    public String formatEscaped() {
+        return StringUtil.format(escapedTemplate, "a", "b");
+    }
+
+    @Benchmark
+    public List<String> splitChar() {
+        return StringUtil.split(csvLine, ',');
+    }
+
+    @Benchmark
+    public String[] splitString() {
+        return StringUtil.split(csvLine, ",");
+    }
+
+    @Benchmark
+    public String parseByte2HexStr() {
+        return StringUtil.parseByte2HexStr(digest);
+    }
+}
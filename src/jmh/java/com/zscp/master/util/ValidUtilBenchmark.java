@@ -0,0 +1,95 @@
+package com.zscp.master.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ValidUtil校验方法的基准测试
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidUtilBenchmark {
+
+    private String str = "  masterutil  ";
+    private String blank = "    ";
+    private Object number = 123456789L;
+    private String mobile = "13800138000";
+    private String email = "zhangsan@example.com";
+    private String ipv4 = "192.168.100.254";
+    private String citizenId = "11010519491231002X";
+    private String[] mobiles = new String[1000000];
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < mobiles.length; i++) {
+            mobiles[i] = (i % 100 == 0 ? "2" : "1") + (3800138000L + i);
+        }
+    }
+
+    @Benchmark
+    public boolean isEmptyString() {
+        return ValidUtil.isEmpty(str);
+    }
+
+    @Benchmark
+    public boolean isEmptyBlank() {
+        return ValidUtil.isEmpty(blank);
+    }
+
+    @Benchmark
+    public boolean isEmptyObject() {
+        return ValidUtil.isEmpty(number);
+    }
+
+    @Benchmark
+    public boolean isMobile() {
+        return ValidUtil.isMobile(mobile);
+    }
+
+    @Benchmark
+    public boolean isEmail() {
+        return ValidUtil.isEmail(email);
+    }
+
+    @Benchmark
+    public boolean isMobileRegex() {
+        return ValidUtil.isMatchRegex(ValidUtil.MOBILE, mobile);
+    }
+
+    @Benchmark
+    public boolean isMatchRegexString() {
+        return ValidUtil.isMatchRegex("1\\d{10}", mobile);
+    }
+
+    @Benchmark
+    public boolean isIpv4() {
+        return ValidUtil.isIpv4(ipv4);
+    }
+
+    @Benchmark
+    public boolean isCitizenId() {
+        return ValidUtil.isCitizenId(citizenId, true);
+    }
+
+    @Benchmark
+    public boolean isCitizenIdRegex() {
+        return ValidUtil.isMatchRegex(ValidUtil.CITIZEN_ID, citizenId);
+    }
+
+    @Benchmark
+    public BitSet validateMobiles() {
+        return ValidUtil.validate(mobiles, ValidUtil::isMobile);
+    }
+
+    @Benchmark
+    public BitSet validateMobilesParallel() {
+        return ValidUtil.validate(mobiles, ValidUtil::isMobile, ForkJoinPool.commonPool());
+    }
+}
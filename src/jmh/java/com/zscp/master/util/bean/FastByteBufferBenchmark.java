@@ -0,0 +1,45 @@
+package com.zscp.master.util.bean;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FastByteBuffer追加与导出的基准测试
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FastByteBufferBenchmark {
+
+    @Param({"128", "8192"})
+    private int chunk;
+
+    private byte[] data;
+
+    @Setup
+    public void setup() {
+        data = new byte[chunk];
+    }
+
+    @Benchmark
+    public FastByteBuffer append() {
+        FastByteBuffer buffer = new FastByteBuffer();
+        for (int i = 0; i < 256; i++) {
+            buffer.append(data);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    public byte[] appendAndToArray() {
+        FastByteBuffer buffer = new FastByteBuffer();
+        for (int i = 0; i < 256; i++) {
+            buffer.append(data);
+        }
+        return buffer.toArray();
+    }
+}
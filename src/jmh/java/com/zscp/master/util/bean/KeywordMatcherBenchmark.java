@@ -0,0 +1,62 @@
+package com.zscp.master.util.bean;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KeywordMatcher与逐个关键词查找的基准测试
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KeywordMatcherBenchmark {
+
+    @Param({"1000", "50000"})
+    private int keywords;
+
+    private List<String> dictionary;
+    private KeywordMatcher matcher;
+    private String text;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        dictionary = new ArrayList<String>(keywords);
+        for (int i = 0; i < keywords; i++) {
+            dictionary.add(randomChinese(random, 2 + random.nextInt(4)));
+        }
+        matcher = new KeywordMatcher(dictionary, true, true);
+        text = randomChinese(random, 200);
+    }
+
+    @Benchmark
+    public int count() {
+        return matcher.count(text);
+    }
+
+    @Benchmark
+    public int loopContains() {
+        int count = 0;
+        for (String keyword : dictionary) {
+            if (text.contains(keyword)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String randomChinese(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('一' + random.nextInt(2000)));
+        }
+        return sb.toString();
+    }
+}
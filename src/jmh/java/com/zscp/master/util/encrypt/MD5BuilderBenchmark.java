@@ -0,0 +1,30 @@
+package com.zscp.master.util.encrypt;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MD5Builder的基准测试
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MD5BuilderBenchmark {
+
+    private String str = "appId=10001&nonce=8f14e45fceea167a&timestamp=1482286830&sign_type=MD5";
+
+    @Benchmark
+    public String getMD5Str() {
+        return MD5Builder.getMD5Str(str);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String getMD5StrConcurrent() {
+        return MD5Builder.getMD5Str(str);
+    }
+}
@@ -95,17 +95,28 @@ public final class ConvertUtil {
                 continue;
             }
 
-            if (c[i] == '\u3000') {
-                c[i] = ' ';
-            } else if (c[i] > '\uFF00' && c[i] < '\uFF5F') {
-                c[i] = (char) (c[i] - 65248);
-            }
+            c[i] = toDBC(c[i]);
         }
         String returnString = new String(c);
 
         return returnString;
     }
 
+    /**
+     * 单个字符全角转半角
+     *
+     * @param c 字符
+     * @return 半角字符，不是全角字符时原样返回
+     */
+    public static char toDBC(char c) {
+        if (c == '\u3000') {
+            return ' ';
+        } else if (c > '\uFF00' && c < '\uFF5F') {
+            return (char) (c - 65248);
+        }
+        return c;
+    }
+
     /**
      * 全角转半角
      *
@@ -1,10 +1,36 @@
 package com.zscp.master.util;
 
+import com.zscp.master.util.bean.CachedClock;
+import com.zscp.master.util.bean.FastDateCodec;
+import com.zscp.master.util.bean.LRUCache;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.format.SignStyle;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PrimitiveIterator;
 import java.util.TimeZone;
+import java.util.stream.LongStream;
 
 /**
  * Created by wujin on 2016/12/21.
@@ -27,6 +53,63 @@ public class DateUtils {
     public final static int SECOND = Calendar.SECOND;// 秒
     public final static int MILLISECOND = Calendar.MILLISECOND; // 毫秒
 
+    /**
+     * unixTimestampToDate使用的时区
+     */
+    private static final ZoneId GMT_8 = ZoneOffset.ofHours(8);
+
+    /**
+     * 格式化器缓存，key为SimpleDateFormat风格的日期格式
+     */
+    private static final LRUCache<String, DateTimeFormatter> FORMATTER_CACHE = new LRUCache<>(256);
+    /**
+     * 不支持的日期格式在缓存中的占位，避免每次都重新扫描格式
+     */
+    private static final DateTimeFormatter UNSUPPORTED = new DateTimeFormatterBuilder().toFormatter();
+
+    /**
+     * 预设格式的定长编解码器，解析和格式化时不经过DateTimeFormatter
+     */
+    private static final Map<String, FastDateCodec> FAST_CODECS = new HashMap<>();
+
+    /**
+     * 当前时间字符串的缓存精度，单位毫秒
+     */
+    private static volatile long clockResolution = 1000;
+
+    /**
+     * 当前时间字符串的缓存，key为日期格式
+     */
+    private static final LRUCache<String, CachedClock> CLOCK_CACHE = new LRUCache<>(64);
+
+    static {
+        for (String pattern : new String[]{DATE_FULL_STR, DATE_SMALL_STR, DATE_KEY_STR, DATE_JFP_STR, "HH:mm:ss"}) {
+            FAST_CODECS.put(pattern, FastDateCodec.of(pattern));
+        }
+        getFormatter(DATE_FULL_STR);
+        getFormatter(DATE_SMALL_STR);
+        getFormatter(DATE_KEY_STR);
+        getFormatter(DATE_JFP_STR);
+        getFormatter("HH:mm:ss");
+    }
+
+    /**
+     * 获取日期格式对应的格式化器，格式化器不可变且线程安全，创建后会被缓存<br>
+     * 格式与{@link SimpleDateFormat}一致，支持的字母为 G y M d H h k K m s S D E a，解析为宽松模式；
+     * yy解析时固定在2000-2099年，需要SimpleDateFormat的世纪规则时请使用{@link #parse(String, String)}
+     *
+     * @param pattern 日期格式
+     * @return 格式化器
+     * @throws IllegalArgumentException 格式中包含不支持的字母
+     */
+    public static DateTimeFormatter getFormatter(String pattern) {
+        DateTimeFormatter formatter = formatter(pattern);
+        if (null == formatter) {
+            throw new IllegalArgumentException(StringUtil.format("Unsupported date pattern [{}]", pattern));
+        }
+        return formatter;
+    }
+
     /**
      * 使用预设格式提取字符串日期
      *
@@ -45,9 +128,8 @@ public class DateUtils {
      * @return 格式化后的日期
      */
     public static Date parse(String strDate, String pattern) {
-        SimpleDateFormat df = new SimpleDateFormat(pattern);
         try {
-            return df.parse(strDate);
+            return new Date(parseMillis(strDate, pattern));
         } catch (ParseException e) {
             return null;
         }
@@ -89,8 +171,7 @@ public class DateUtils {
      * @return 当前时间
      */
     public static String getNowTime() {
-        SimpleDateFormat df = new SimpleDateFormat(DATE_FULL_STR);
-        return df.format(new Date());
+        return formatNow(DATE_FULL_STR);
     }
 
     /**
@@ -100,8 +181,7 @@ public class DateUtils {
      * @return 当前时间
      */
     public static String getNowTime(String type) {
-        SimpleDateFormat df = new SimpleDateFormat(type);
-        return df.format(new Date());
+        return formatNow(type);
     }
 
     /**
@@ -113,7 +193,7 @@ public class DateUtils {
     public static long dateToUnixTimestamp(String date) {
         long timestamp = 0;
         try {
-            timestamp = new SimpleDateFormat(DATE_FULL_STR).parse(date).getTime();
+            timestamp = parseMillis(date, DATE_FULL_STR);
         } catch (ParseException e) {
             e.printStackTrace();
         }
@@ -130,7 +210,7 @@ public class DateUtils {
     public static long dateToUnixTimestamp(String date, String dateFormat) {
         long timestamp = 0;
         try {
-            timestamp = new SimpleDateFormat(dateFormat).parse(date).getTime();
+            timestamp = parseMillis(date, dateFormat);
         } catch (ParseException e) {
             e.printStackTrace();
         }
@@ -156,9 +236,76 @@ public class DateUtils {
      * @return String 日期字符串
      */
     public static String unixTimestampToDate(long timestamp, String format) {
-        SimpleDateFormat sd = new SimpleDateFormat(format);
-        sd.setTimeZone(TimeZone.getTimeZone("GMT+8"));
-        return sd.format(new Date(timestamp));
+        return format(timestamp, format, GMT_8);
+    }
+
+    /**
+     * 批量将Unix时间戳转换成日期，结果与逐个调用{@link #unixTimestampToDate(long, String)}一致<br>
+     * 预设格式下相邻的时间戳处于同一天时只重新计算时间部分
+     *
+     * @param timestamps 时间戳
+     * @param format     转换的格式
+     * @return 日期字符串，与时间戳一一对应
+     */
+    public static String[] unixTimestampToDate(long[] timestamps, String format) {
+        final String[] result = new String[timestamps.length];
+        final FastDateCodec codec = FAST_CODECS.get(format);
+        if (null == codec) {
+            for (int i = 0; i < timestamps.length; i++) {
+                result[i] = format(timestamps[i], format, GMT_8);
+            }
+            return result;
+        }
+        final char[] buf = new char[codec.length()];
+        long previous = FastDateCodec.INVALID;
+        for (int i = 0; i < timestamps.length; i++) {
+            final long local = FastDateCodec.toLocalMillis(timestamps[i], GMT_8);
+            if (codec.formatLocal(local, previous, buf, 0)) {
+                result[i] = new String(buf);
+                previous = local;
+            } else {
+                result[i] = format(timestamps[i], format, GMT_8);
+                previous = FastDateCodec.INVALID;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量将Unix时间戳转换成日期并写出，结果与逐个调用{@link #unixTimestampToDate(long, String)}一致<br>
+     * 预设格式下不为每个时间戳创建字符串，相邻的时间戳处于同一天时只重新计算时间部分
+     *
+     * @param timestamps 时间戳
+     * @param format     转换的格式
+     * @param out        输出目标，如StringBuilder、Writer
+     * @param separator  日期之间的分隔符，null表示不分隔
+     * @throws IOException 写出失败
+     */
+    public static void unixTimestampToDate(LongStream timestamps, String format, Appendable out, CharSequence separator) throws IOException {
+        final PrimitiveIterator.OfLong it = timestamps.iterator();
+        final FastDateCodec codec = FAST_CODECS.get(format);
+        final char[] buf = null == codec ? null : new char[codec.length()];
+        final CharBuffer view = null == codec ? null : CharBuffer.wrap(buf);
+        long previous = FastDateCodec.INVALID;
+        boolean first = true;
+        while (it.hasNext()) {
+            final long timestamp = it.nextLong();
+            if (first) {
+                first = false;
+            } else if (null != separator) {
+                out.append(separator);
+            }
+            if (null != codec) {
+                final long local = FastDateCodec.toLocalMillis(timestamp, GMT_8);
+                if (codec.formatLocal(local, previous, buf, 0)) {
+                    out.append(view);
+                    previous = local;
+                    continue;
+                }
+                previous = FastDateCodec.INVALID;
+            }
+            out.append(format(timestamp, format, GMT_8));
+        }
     }
 
 
@@ -215,8 +362,7 @@ public class DateUtils {
         if (pattern == null) {
             pattern = "yyyy-MM-dd";
         }
-        SimpleDateFormat sdf = new SimpleDateFormat(pattern);
-        return (sdf.format(date));
+        return format(date.getTime(), pattern, null);
     }
 
     // --------------------- 2. --------------------------------
@@ -284,9 +430,8 @@ public class DateUtils {
         if (datetime == null) {
             return now();
         }
-        SimpleDateFormat formatter = new SimpleDateFormat(pattern);
         try {
-            return formatter.parse(formatter.format(datetime));
+            return new Date(parseMillis(format(datetime.getTime(), pattern, null), pattern));
         } catch (ParseException e) {
             return null;
         }
@@ -300,13 +445,11 @@ public class DateUtils {
      * @return 转换后的日期
      */
     public static Date parseDate(String date, String pattern) {
-        SimpleDateFormat formatter = new SimpleDateFormat(pattern);
-
         if ((date == null) || ("".equals(date))) {
             return now();
         } else {
             try {
-                return formatter.parse(date);
+                return new Date(parseMillis(date, pattern));
             } catch (ParseException e) {
                 return null;
             }
@@ -319,7 +462,7 @@ public class DateUtils {
      * @return 当前日期字符串
      */
     public static String formatDate() {
-        return (formatDate(now(), "yyyy-MM-dd"));
+        return formatNow(DATE_SMALL_STR);
     }
 
     /**
@@ -328,7 +471,7 @@ public class DateUtils {
      * @return 当前日期字符串
      */
     public static String formatDateTime() {
-        return (formatDate(now(), "yyyy-MM-dd HH:mm:ss"));
+        return formatNow(DATE_FULL_STR);
     }
 
     /**
@@ -337,7 +480,7 @@ public class DateUtils {
      * @return 字符串
      */
     public static String formatTime() {
-        return (formatDate(now(), "HH:mm:ss"));
+        return formatNow("HH:mm:ss");
     }
 
     /**
@@ -347,7 +490,7 @@ public class DateUtils {
      * @return 字符串
      */
     public static String formatDate(String patten) {
-        return (formatDate(now(), patten));
+        return formatNow(null == patten ? DATE_SMALL_STR : patten);
     }
 
     /**
@@ -521,4 +664,346 @@ public class DateUtils {
     public static Date now() {
         return (new Date());
     }
+
+    // --------------------- 当前时间缓存 --------------------------------
+
+    /**
+     * 设置当前时间字符串的缓存精度，默认1秒<br>
+     * 影响 getNowTime、formatDate()、formatDateTime()、formatTime() 等获取当前时间字符串的方法，
+     * 同一精度内返回缓存的字符串；精度大于1秒时返回值最多滞后一个精度
+     *
+     * @param resolution 精度，单位毫秒
+     */
+    public static void setClockResolution(long resolution) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("Resolution must be greater than 0!");
+        }
+        clockResolution = resolution;
+        CLOCK_CACHE.clear();
+    }
+
+    /**
+     * @return 当前时间字符串的缓存精度，单位毫秒
+     */
+    public static long getClockResolution() {
+        return clockResolution;
+    }
+
+    /**
+     * 创建按给定格式输出当前时间的缓存时钟，使用系统默认时区
+     *
+     * @param pattern    日期格式
+     * @param resolution 精度，单位毫秒
+     * @return 缓存时钟
+     */
+    public static CachedClock cachedClock(final String pattern, long resolution) {
+        return new CachedClock(resolution, millis -> format(millis, pattern, null));
+    }
+
+    /**
+     * 按照给定格式输出当前时间，格式中含有毫秒（S）时不使用缓存
+     *
+     * @param pattern 日期格式
+     * @return 当前时间字符串
+     */
+    private static String formatNow(String pattern) {
+        if (null == pattern || pattern.indexOf('S') >= 0) {
+            return format(System.currentTimeMillis(), pattern, null);
+        }
+        return CLOCK_CACHE.get(pattern, p -> cachedClock(p, clockResolution)).now();
+    }
+
+    // --------------------- 格式化器 --------------------------------
+
+    /**
+     * 按照给定格式将时间戳格式化为字符串
+     *
+     * @param millis  时间戳
+     * @param pattern 日期格式
+     * @param zone    时区，null表示系统默认时区
+     * @return 日期字符串
+     */
+    private static String format(long millis, String pattern, ZoneId zone) {
+        final FastDateCodec codec = FAST_CODECS.get(pattern);
+        if (null != codec) {
+            String result = codec.format(millis, null == zone ? ZoneId.systemDefault() : zone);
+            if (null != result) {
+                return result;
+            }
+        }
+        DateTimeFormatter formatter = formatter(pattern);
+        if (null == formatter) {
+            SimpleDateFormat sdf = new SimpleDateFormat(pattern);
+            if (null != zone) {
+                sdf.setTimeZone(TimeZone.getTimeZone(zone));
+            }
+            return sdf.format(new Date(millis));
+        }
+        return formatter.format(Instant.ofEpochMilli(millis).atZone(null == zone ? ZoneId.systemDefault() : zone));
+    }
+
+    /**
+     * 按照给定格式将字符串解析为时间戳，使用系统默认时区<br>
+     * 预设格式的字符串与格式完全匹配时直接按位计算，否则使用宽松的通用解析，通用解析与SimpleDateFormat结果可能不同时交给SimpleDateFormat，见{@link #fitsFormatter(String, String)}
+     *
+     * @param str     日期字符串
+     * @param pattern 日期格式
+     * @return 时间戳
+     * @throws ParseException 解析失败
+     */
+    private static long parseMillis(String str, String pattern) throws ParseException {
+        final FastDateCodec codec = FAST_CODECS.get(pattern);
+        if (null != codec) {
+            long millis = codec.parse(str);
+            if (millis != FastDateCodec.INVALID) {
+                return millis;
+            }
+        }
+        DateTimeFormatter formatter = formatter(pattern);
+        if (null == formatter || false == fitsFormatter(str, pattern)) {
+            return new SimpleDateFormat(pattern).parse(str).getTime();
+        }
+        // 与SimpleDateFormat一致，字符串末尾多余的内容被忽略
+        final ParsePosition position = new ParsePosition(0);
+        try {
+            return toEpochMilli(formatter.parse(str, position));
+        } catch (DateTimeException e) {
+            ParseException pe = new ParseException(e.getMessage(), position.getErrorIndex());
+            pe.initCause(e);
+            throw pe;
+        }
+    }
+
+    /**
+     * 字符串能否交给DateTimeFormatter解析，并得到与SimpleDateFormat相同的结果<br>
+     * 两者对相邻数字字段（如yyMMdd）和位数、空白不规范的字符串处理不同，例如yyMMddHHmmss解析"16122110203"时DateTimeFormatter会得到0006年：
+     * <ul>
+     * <li>只含数字字段和分隔符的格式，要求字符串与格式等长，数字字段的位置都是数字，分隔符相同</li>
+     * <li>含文本字段（如MMM、E、a）或引号的格式无法逐位比较，要求格式中没有相邻的数字字段</li>
+     * <li>含y或yy的格式解析两位年份时，世纪以当前时间之前80年的同一时刻为界，总是交给SimpleDateFormat</li>
+     * </ul>
+     *
+     * @param str     日期字符串
+     * @param pattern 日期格式
+     * @return 是否可以使用DateTimeFormatter解析
+     */
+    private static boolean fitsFormatter(String str, String pattern) {
+        final int length = pattern.length();
+        boolean fixed = str.length() == length;
+        boolean textual = false;
+        boolean adjacent = false;
+        boolean previousNumber = false;
+        int i = 0;
+        while (i < length) {
+            final char c = pattern.charAt(i);
+            if (c == '\'') {
+                // 引号中的内容视为分隔符，之后的位置无法与字符串对齐
+                final int close = pattern.indexOf('\'', i + 1);
+                textual = true;
+                previousNumber = false;
+                i = close < 0 ? length : close + 1;
+                continue;
+            }
+            int end = i;
+            while (end < length && pattern.charAt(end) == c) {
+                end++;
+            }
+            if (c == 'y' && end - i <= 2) {
+                // 两位年份的世纪取决于当前时间，交给SimpleDateFormat
+                return false;
+            }
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                final boolean number = "yMdHhkKmsSD".indexOf(c) >= 0 && (c != 'M' || end - i <= 2);
+                adjacent |= number && previousNumber;
+                textual |= false == number;
+                for (int j = i; fixed && number && j < end; j++) {
+                    fixed = str.charAt(j) >= '0' && str.charAt(j) <= '9';
+                }
+                previousNumber = number;
+            } else {
+                for (int j = i; fixed && j < end; j++) {
+                    fixed = str.charAt(j) == c;
+                }
+                previousNumber = false;
+            }
+            i = end;
+        }
+        return textual ? false == adjacent : fixed;
+    }
+
+    /**
+     * 将解析结果转换为时间戳，缺失的字段按SimpleDateFormat的规则取1970-01-01 00:00:00中对应的值
+     *
+     * @param temporal 解析结果
+     * @return 时间戳
+     */
+    private static long toEpochMilli(TemporalAccessor temporal) {
+        LocalDate date = temporal.query(TemporalQueries.localDate());
+        if (null == date) {
+            int year = temporal.isSupported(ChronoField.YEAR) ? temporal.get(ChronoField.YEAR) : 1970;
+            long month = temporal.isSupported(ChronoField.MONTH_OF_YEAR) ? temporal.getLong(ChronoField.MONTH_OF_YEAR) : 1;
+            long day = temporal.isSupported(ChronoField.DAY_OF_MONTH) ? temporal.getLong(ChronoField.DAY_OF_MONTH) : 1;
+            // 没有日期字段时，宽松解析中时间超出一天的部分不会加到日期上，需要单独顺延
+            date = LocalDate.of(year, 1, 1).plusMonths(month - 1).plusDays(day - 1)
+                    .plusDays(temporal.query(DateTimeFormatter.parsedExcessDays()).getDays());
+        }
+        LocalTime time = temporal.query(TemporalQueries.localTime());
+        if (null == time) {
+            long hour = 0;
+            if (temporal.isSupported(ChronoField.HOUR_OF_DAY)) {
+                hour = temporal.getLong(ChronoField.HOUR_OF_DAY);
+            } else if (temporal.isSupported(ChronoField.HOUR_OF_AMPM)) {
+                hour = temporal.getLong(ChronoField.HOUR_OF_AMPM);
+                if (temporal.isSupported(ChronoField.AMPM_OF_DAY)) {
+                    hour += temporal.getLong(ChronoField.AMPM_OF_DAY) * 12;
+                }
+            }
+            long minute = temporal.isSupported(ChronoField.MINUTE_OF_HOUR) ? temporal.getLong(ChronoField.MINUTE_OF_HOUR) : 0;
+            long second = temporal.isSupported(ChronoField.SECOND_OF_MINUTE) ? temporal.getLong(ChronoField.SECOND_OF_MINUTE) : 0;
+            long nano = temporal.isSupported(ChronoField.NANO_OF_SECOND) ? temporal.getLong(ChronoField.NANO_OF_SECOND) : 0;
+            LocalDateTime dateTime = LocalDateTime.of(date, LocalTime.MIDNIGHT)
+                    .plusHours(hour).plusMinutes(minute).plusSeconds(second).plusNanos(nano);
+            return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        return LocalDateTime.of(date, time).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 从缓存中获取格式化器，不支持的格式也会被缓存
+     *
+     * @param pattern 日期格式
+     * @return 格式化器，格式中包含不支持的字母时返回null
+     */
+    private static DateTimeFormatter formatter(String pattern) {
+        final DateTimeFormatter formatter = FORMATTER_CACHE.get(pattern, p -> {
+            final DateTimeFormatter built = buildFormatter(p);
+            return null == built ? UNSUPPORTED : built;
+        });
+        return formatter == UNSUPPORTED ? null : formatter;
+    }
+
+    /**
+     * 将SimpleDateFormat风格的日期格式转换为格式化器<br>
+     * 与DateTimeFormatter.ofPattern不同，这里保留了SimpleDateFormat的语义：
+     * <ul>
+     * <li>S 表示毫秒数而不是秒的小数部分</li>
+     * <li>yy 格式化为年份的后两位；解析两位年份的世纪取决于当前时间，由{@link #parseMillis(String, String)}交给SimpleDateFormat</li>
+     * <li>解析时数字位数不固定，超出范围的值顺延（如13月为次年1月）</li>
+     * </ul>
+     *
+     * @param pattern 日期格式
+     * @return 格式化器，格式中包含不支持的字母时返回null
+     */
+    private static DateTimeFormatter buildFormatter(String pattern) {
+        final DateTimeFormatterBuilder builder = new DateTimeFormatterBuilder().parseCaseInsensitive().parseLenient();
+        final int length = pattern.length();
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                // 引号中的内容原样输出，两个引号表示一个引号
+                int end = i + 1;
+                StringBuilder literal = new StringBuilder();
+                while (true) {
+                    if (end >= length) {
+                        return null;
+                    }
+                    char lc = pattern.charAt(end);
+                    if (lc == '\'') {
+                        if (end + 1 < length && pattern.charAt(end + 1) == '\'') {
+                            literal.append('\'');
+                            end += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    literal.append(lc);
+                    end++;
+                }
+                builder.appendLiteral(end == i + 1 ? "'" : literal.toString());
+                i = end + 1;
+                continue;
+            }
+            if (false == ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                builder.appendLiteral(c);
+                i++;
+                continue;
+            }
+
+            int end = i;
+            while (end < length && pattern.charAt(end) == c) {
+                end++;
+            }
+            final int count = end - i;
+            switch (c) {
+                case 'G':
+                    builder.appendText(ChronoField.ERA, count < 4 ? TextStyle.SHORT : TextStyle.FULL);
+                    break;
+                case 'y':
+                    if (count == 2) {
+                        builder.appendValueReduced(ChronoField.YEAR_OF_ERA, 2, 2, 2000);
+                    } else {
+                        builder.appendValue(ChronoField.YEAR_OF_ERA, count, 19, SignStyle.NORMAL);
+                    }
+                    break;
+                case 'M':
+                    if (count >= 3) {
+                        builder.appendText(ChronoField.MONTH_OF_YEAR, count == 3 ? TextStyle.SHORT : TextStyle.FULL);
+                    } else {
+                        appendNumber(builder, ChronoField.MONTH_OF_YEAR, count, 2);
+                    }
+                    break;
+                case 'd':
+                    appendNumber(builder, ChronoField.DAY_OF_MONTH, count, 2);
+                    break;
+                case 'H':
+                    appendNumber(builder, ChronoField.HOUR_OF_DAY, count, 2);
+                    break;
+                case 'h':
+                    appendNumber(builder, ChronoField.CLOCK_HOUR_OF_AMPM, count, 2);
+                    break;
+                case 'k':
+                    appendNumber(builder, ChronoField.CLOCK_HOUR_OF_DAY, count, 2);
+                    break;
+                case 'K':
+                    appendNumber(builder, ChronoField.HOUR_OF_AMPM, count, 2);
+                    break;
+                case 'm':
+                    appendNumber(builder, ChronoField.MINUTE_OF_HOUR, count, 2);
+                    break;
+                case 's':
+                    appendNumber(builder, ChronoField.SECOND_OF_MINUTE, count, 2);
+                    break;
+                case 'S':
+                    appendNumber(builder, ChronoField.MILLI_OF_SECOND, count, 3);
+                    break;
+                case 'D':
+                    appendNumber(builder, ChronoField.DAY_OF_YEAR, count, 3);
+                    break;
+                case 'E':
+                    builder.appendText(ChronoField.DAY_OF_WEEK, count < 4 ? TextStyle.SHORT : TextStyle.FULL);
+                    break;
+                case 'a':
+                    builder.appendText(ChronoField.AMPM_OF_DAY, TextStyle.SHORT);
+                    break;
+                default:
+                    // 时区、周等与SimpleDateFormat语义不同的字母不支持
+                    return null;
+            }
+            i = end;
+        }
+        return builder.toFormatter().withResolverStyle(ResolverStyle.LENIENT);
+    }
+
+    /**
+     * 加入数字字段，最小宽度为字母个数
+     *
+     * @param builder  格式化器构建器
+     * @param field    字段
+     * @param count    字母个数
+     * @param maxWidth 字段的最大宽度
+     */
+    private static void appendNumber(DateTimeFormatterBuilder builder, ChronoField field, int count, int maxWidth) {
+        builder.appendValue(field, count, Math.max(count, maxWidth), SignStyle.NOT_NEGATIVE);
+    }
 }
\ No newline at end of file
@@ -1,28 +1,51 @@
 package com.zscp.master.util;
 
+import com.zscp.master.util.bean.BufferPool;
+import com.zscp.master.util.bean.ChunkDigest;
+import com.zscp.master.util.bean.FastByteArrayOutputStream;
+import com.zscp.master.util.bean.LineIndex;
+import com.zscp.master.util.bean.StreamProgress;
+import com.zscp.master.util.bean.ThrottledProgress;
+import com.zscp.master.util.encrypt.DigestBuilder;
+
 import java.io.*;
-import java.math.BigInteger;
 import java.net.*;
 import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * 封装了些文件相关的操作
  */
 public final class FileUtil {
 
-    /**
-     * Buffer的大小
-     */
-    private static Integer BUFFER_SIZE = 1024 * 1024 * 10;
     /**
      * The Unix separator character.
      */
@@ -32,6 +55,35 @@ public final class FileUtil {
      */
     private static final char WINDOWS_SEPARATOR = '\\';
 
+    /**
+     * 扫描文件内容（摘要、统计行数）时使用内存映射的最小长度，更短的内容直接读取
+     */
+    private static final long MAP_THRESHOLD = 1024 * 1024;
+    /**
+     * 扫描文件内容时每次映射的窗口大小
+     */
+    private static final long MAP_SIZE = 64 * 1024 * 1024;
+    /**
+     * 扫描文件内容时直接读取的缓冲大小
+     */
+    private static final int READ_SIZE = 64 * 1024;
+    /**
+     * 并行统计行数时每个任务处理的最大字节数，更小的文件在当前线程统计
+     */
+    private static final long LINE_COUNT_REGION = 64 * 1024 * 1024;
+    /**
+     * 并行逐行处理时每个区域的最小字节数，区域在此之后的第一个换行符处结束
+     */
+    private static final long LINE_PROCESS_REGION = 16 * 1024 * 1024;
+    /**
+     * 文件摘要时报告进度的间隔字节数
+     */
+    private static final int DIGEST_PROGRESS_STEP = 4 * 1024 * 1024;
+
+    /**
+     * @deprecated MessageDigest非线程安全，多线程共用会得到错误结果，请使用{@link DigestBuilder#getDigest(String)}
+     */
+    @Deprecated
     public static MessageDigest MD5 = null;
 
     static {
@@ -46,30 +98,294 @@ public final class FileUtil {
      * 获取文件的md5
      *
      * @param file 文件
-     * @return MD5加密后的字符串
+     * @return MD5加密后的字符串（32位小写十六进制），读取失败返回null
      * @throws IOException IO异常
      */
     public static String fileMD5(File file) throws IOException {
-        FileInputStream fileInputStream = null;
         try {
-            fileInputStream = new FileInputStream(file);
-            byte[] buffer = new byte[8192];
-            int length;
-            while ((length = fileInputStream.read(buffer)) != -1) {
-                MD5.update(buffer, 0, length);
-            }
-            return new BigInteger(1, MD5.digest()).toString(16);
+            return fileDigest(file, DigestBuilder.MD5, null);
         } catch (IOException e) {
             return null;
-        } finally {
+        }
+    }
+
+    /**
+     * 计算文件的摘要
+     *
+     * @param file      文件
+     * @param algorithm 算法名称，如 MD5、SHA-1、SHA-256
+     * @return 小写十六进制的摘要，保留前导0
+     * @throws IOException IO异常
+     */
+    public static String fileDigest(File file, String algorithm) throws IOException {
+        return fileDigest(file, algorithm, null);
+    }
+
+    /**
+     * 计算文件的摘要<br>
+     * 大文件按窗口映射到内存后直接交给{@link MessageDigest}，不经过用户态的缓冲拷贝，小文件直接读取
+     *
+     * @param file           文件
+     * @param algorithm      算法名称，如 MD5、SHA-1、SHA-256
+     * @param streamProgress 进度条，可以为null
+     * @return 小写十六进制的摘要，保留前导0
+     * @throws IOException IO异常
+     */
+    public static String fileDigest(File file, String algorithm, StreamProgress streamProgress) throws IOException {
+        MessageDigest digest = DigestBuilder.getDigest(algorithm);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            streamProgress = ThrottledProgress.wrap(streamProgress, channel.size());
+            if (null != streamProgress) {
+                streamProgress.start();
+            }
+            updateDigest(digest, channel, 0, channel.size(), streamProgress);
+            if (null != streamProgress) {
+                streamProgress.finish();
+            }
+        }
+        return HexUtil.encodeHexStr(digest.digest());
+    }
+
+    /**
+     * 分块计算文件的摘要，使用默认的分块大小，各块在{@link ForkJoinPool#commonPool()}中并行计算
+     *
+     * @param file      文件
+     * @param algorithm 摘要算法名称，如 MD5、SHA-256
+     * @return 分块摘要
+     * @throws IOException IO异常
+     */
+    public static ChunkDigest fileChunkDigest(File file, String algorithm) throws IOException {
+        return fileChunkDigest(file, algorithm, ChunkDigest.DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 分块计算文件的摘要<br>
+     * 文件按固定大小分块，各块的摘要提交到线程池中并行计算，再按Merkle树合并：相邻两块摘要拼接后再次计算摘要，落单的直接进入上一层，
+     * 最后与分块大小、文件大小一起计算根摘要，格式见{@link ChunkDigest}
+     *
+     * @param file      文件
+     * @param algorithm 摘要算法名称，如 MD5、SHA-256
+     * @param chunkSize 分块大小，必须大于0
+     * @param executor  计算摘要的线程池，null表示在当前线程执行
+     * @return 分块摘要
+     * @throws IOException IO异常
+     */
+    public static ChunkDigest fileChunkDigest(File file, String algorithm, long chunkSize, Executor executor) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than 0!");
+        }
+        // 提前检查算法，避免在线程池中失败
+        DigestBuilder.getDigest(algorithm);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long length = channel.size();
+            final int count = Math.toIntExact((length + chunkSize - 1) / chunkSize);
+            final byte[][] hashes = new byte[count][];
+            if (null == executor) {
+                for (int i = 0; i < count; i++) {
+                    hashes[i] = chunkDigest(channel, algorithm, i * chunkSize, Math.min(chunkSize, length - i * chunkSize));
+                }
+            } else {
+                final CompletableFuture<?>[] futures = new CompletableFuture<?>[count];
+                for (int i = 0; i < count; i++) {
+                    final int index = i;
+                    final long position = i * chunkSize;
+                    futures[i] = CompletableFuture.runAsync(() -> {
+                        try {
+                            hashes[index] = chunkDigest(channel, algorithm, position, Math.min(chunkSize, length - position));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, executor);
+                }
+                try {
+                    CompletableFuture.allOf(futures).join();
+                } catch (CompletionException e) {
+                    if (e.getCause() instanceof UncheckedIOException) {
+                        throw ((UncheckedIOException) e.getCause()).getCause();
+                    }
+                    throw e;
+                }
+            }
+
+            final String[] chunkHashes = new String[count];
+            for (int i = 0; i < count; i++) {
+                chunkHashes[i] = HexUtil.encodeHexStr(hashes[i]);
+            }
+            return new ChunkDigest(algorithm, chunkSize, length, chunkHashes, HexUtil.encodeHexStr(merkleRoot(hashes, algorithm, chunkSize, length)));
+        }
+    }
+
+    /**
+     * 计算文件中一块内容的摘要
+     */
+    private static byte[] chunkDigest(FileChannel channel, String algorithm, long position, long length) throws IOException {
+        MessageDigest digest = DigestBuilder.getDigest(algorithm);
+        digest.update(ChunkDigest.LEAF_PREFIX);
+        updateDigest(digest, channel, position, length, null);
+        return digest.digest();
+    }
+
+    /**
+     * 逐层两两合并摘要，再与分块大小、文件大小一起计算根摘要
+     */
+    private static byte[] merkleRoot(byte[][] hashes, String algorithm, long chunkSize, long length) {
+        byte[][] level = hashes;
+        if (level.length == 0) {
+            level = new byte[][]{DigestBuilder.digest(algorithm, new byte[]{ChunkDigest.LEAF_PREFIX})};
+        }
+        while (level.length > 1) {
+            byte[][] parent = new byte[(level.length + 1) / 2][];
+            for (int i = 0; i < parent.length; i++) {
+                if (i * 2 + 1 < level.length) {
+                    MessageDigest digest = DigestBuilder.getDigest(algorithm);
+                    digest.update(ChunkDigest.NODE_PREFIX);
+                    digest.update(level[i * 2]);
+                    digest.update(level[i * 2 + 1]);
+                    parent[i] = digest.digest();
+                } else {
+                    parent[i] = level[i * 2];
+                }
+            }
+            level = parent;
+        }
+        final MessageDigest digest = DigestBuilder.getDigest(algorithm);
+        digest.update(ChunkDigest.ROOT_PREFIX);
+        digest.update(ByteBuffer.allocate(16).putLong(chunkSize).putLong(length).array());
+        digest.update(level[0]);
+        return digest.digest();
+    }
+
+    /**
+     * 查找目录（含子目录）下内容重复的文件，在当前线程执行
+     *
+     * @param dir       目录
+     * @param algorithm 摘要算法名称，如 MD5、SHA-256
+     * @return 摘要与内容相同的文件，只包含两个及以上文件的分组
+     * @throws IOException IO异常
+     */
+    public static Map<String, List<File>> findDuplicates(File dir, String algorithm) throws IOException {
+        return findDuplicates(listFile(dir), algorithm, null);
+    }
+
+    /**
+     * 查找目录（含子目录）下内容重复的文件
+     *
+     * @param dir       目录
+     * @param algorithm 摘要算法名称，如 MD5、SHA-256
+     * @param executor  计算摘要的线程池，null表示在当前线程执行
+     * @return 摘要与内容相同的文件，只包含两个及以上文件的分组
+     * @throws IOException IO异常
+     */
+    public static Map<String, List<File>> findDuplicates(File dir, String algorithm, Executor executor) throws IOException {
+        return findDuplicates(listFile(dir), algorithm, executor);
+    }
+
+    /**
+     * 查找内容重复的文件<br>
+     * 先按文件大小分组，只有大小相同的文件才需要计算摘要，摘要的计算提交到线程池中并行执行
+     *
+     * @param files     文件
+     * @param algorithm 摘要算法名称，如 MD5、SHA-256
+     * @param executor  计算摘要的线程池，null表示在当前线程执行
+     * @return 摘要与内容相同的文件，只包含两个及以上文件的分组，分组及组内文件保持输入的顺序
+     * @throws IOException IO异常，任意文件读取失败时抛出
+     */
+    public static Map<String, List<File>> findDuplicates(Collection<File> files, String algorithm, Executor executor) throws IOException {
+        final Map<Long, List<File>> sizeGroups = new LinkedHashMap<>();
+        for (File file : files) {
+            if (file.isFile()) {
+                sizeGroups.computeIfAbsent(file.length(), key -> new ArrayList<>()).add(file);
+            }
+        }
+        final List<File> candidates = new ArrayList<>();
+        for (List<File> group : sizeGroups.values()) {
+            if (group.size() > 1) {
+                candidates.addAll(group);
+            }
+        }
+
+        final String[] digests = new String[candidates.size()];
+        if (null == executor) {
+            for (int i = 0; i < digests.length; i++) {
+                digests[i] = fileDigest(candidates.get(i), algorithm);
+            }
+        } else {
+            final CompletableFuture<?>[] futures = new CompletableFuture<?>[digests.length];
+            for (int i = 0; i < digests.length; i++) {
+                final int index = i;
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        digests[index] = fileDigest(candidates.get(index), algorithm);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, executor);
+            }
             try {
-                if (fileInputStream != null) {
-                    fileInputStream.close();
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
                 }
-            } catch (IOException e) {
                 throw e;
             }
         }
+
+        final Map<String, List<File>> result = new LinkedHashMap<>();
+        for (int i = 0; i < digests.length; i++) {
+            result.computeIfAbsent(digests[i], key -> new ArrayList<>()).add(candidates.get(i));
+        }
+        result.values().removeIf(group -> group.size() < 2);
+        return result;
+    }
+
+    /**
+     * 将文件的一段内容计入摘要
+     *
+     * @param digest         摘要
+     * @param channel        文件通道
+     * @param position       起始位置
+     * @param length         长度
+     * @param streamProgress 进度条，可以为null，进度为本段已处理的字节数
+     * @throws IOException IO异常
+     */
+    private static void updateDigest(MessageDigest digest, FileChannel channel, long position, long length, StreamProgress streamProgress) throws IOException {
+        long done = 0;
+        if (length < MAP_THRESHOLD) {
+            ByteBuffer buffer = BufferPool.DEFAULT.acquireHeap((int) Math.min(length, READ_SIZE));
+            try {
+                while (done < length) {
+                    buffer.limit((int) Math.min(buffer.capacity(), length - done));
+                    int read = channel.read(buffer, position + done);
+                    if (read < 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    digest.update(buffer);
+                    buffer.clear();
+                    done += read;
+                    if (null != streamProgress) {
+                        streamProgress.progress(done);
+                    }
+                }
+            } finally {
+                BufferPool.DEFAULT.release(buffer);
+            }
+            return;
+        }
+        while (done < length) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position + done, Math.min(MAP_SIZE, length - done));
+            // 按片段计入摘要，以便及时报告进度
+            for (int offset = 0, size = mapped.capacity(); offset < size; ) {
+                offset = Math.min(size, offset + DIGEST_PROGRESS_STEP);
+                mapped.limit(offset);
+                digest.update(mapped);
+                if (null != streamProgress) {
+                    streamProgress.progress(done + offset);
+                }
+            }
+            done += mapped.capacity();
+        }
     }
 
     /**
@@ -77,6 +393,7 @@ public final class FileUtil {
      *
      * @param file 统计的文件
      * @return 文件行数
+     * @see #countLines(File, ForkJoinPool)
      */
     public final static int countLines(File file) {
         try (LineNumberReader rf = new LineNumberReader(new FileReader(file))) {
@@ -89,6 +406,334 @@ public final class FileUtil {
         return 0;
     }
 
+    /**
+     * 统计文件中换行符（\n）的数量，与wc -l一致，最后一行没有换行符时不计入<br>
+     * 直接在字节上统计，不解码字符，适用于UTF-8、GBK等兼容ASCII的编码（不适用于UTF-16），大文件按窗口映射到内存后统计
+     *
+     * @param file 统计的文件
+     * @param pool 线程池，文件超过64MB时按区域并行统计，null表示在当前线程统计
+     * @return 换行符的数量
+     * @throws IOException IO异常
+     */
+    public static long countLines(File file, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (null == pool || size <= LINE_COUNT_REGION) {
+                return countByte(channel, 0, size, (byte) '\n');
+            }
+            try {
+                return pool.invoke(new CountByteTask(channel, 0, size, (byte) '\n'));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 统计文件的一段内容中指定字节的数量
+     *
+     * @param channel  文件通道
+     * @param position 起始位置
+     * @param length   长度
+     * @param target   统计的字节
+     * @return 数量
+     * @throws IOException IO异常
+     */
+    private static long countByte(FileChannel channel, long position, long length, byte target) throws IOException {
+        long count = 0;
+        long done = 0;
+        if (length < MAP_THRESHOLD) {
+            ByteBuffer buffer = BufferPool.DEFAULT.acquireHeap((int) Math.min(length, READ_SIZE));
+            try {
+                while (done < length) {
+                    buffer.limit((int) Math.min(buffer.capacity(), length - done));
+                    int read = channel.read(buffer, position + done);
+                    if (read < 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    count += countByte(buffer, target);
+                    buffer.clear();
+                    done += read;
+                }
+            } finally {
+                BufferPool.DEFAULT.release(buffer);
+            }
+            return count;
+        }
+        while (done < length) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position + done, Math.min(MAP_SIZE, length - done));
+            count += countByte(mapped, target);
+            done += mapped.capacity();
+        }
+        return count;
+    }
+
+    /**
+     * 统计缓冲中position到limit之间指定字节的数量，每次比较8个字节
+     *
+     * @param buffer 缓冲
+     * @param target 统计的字节
+     * @return 数量
+     */
+    private static long countByte(ByteBuffer buffer, byte target) {
+        final long pattern = (target & 0xFFL) * 0x0101010101010101L;
+        final long low7 = 0x7F7F7F7F7F7F7F7FL;
+        final int end = buffer.limit();
+        long count = 0;
+        int i = buffer.position();
+        for (; i + 8 <= end; i += 8) {
+            // 与目标相同的字节异或后为0，每个为0的字节在结果中对应最高位为1
+            final long x = buffer.getLong(i) ^ pattern;
+            count += Long.bitCount(~(((x & low7) + low7) | x | low7));
+        }
+        for (; i < end; i++) {
+            if (buffer.get(i) == target) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 并行逐行归约文件内容<br>
+     * 文件按字节切分为约16MB、以换行符结尾的区域，每个区域映射到内存后解码，在线程池中从identity开始依次累加各行，再按区域顺序合并结果<br>
+     * 与{@link java.util.stream.Stream#reduce(Object, BiFunction, BinaryOperator)}的约定相同：identity会被多个区域共用，accumulator不能修改它，combiner需要满足结合律<br>
+     * 按\n切分区域，行结束符与{@link BufferedReader#readLine()}一致（\n、\r或\r\n），字符集必须兼容ASCII（如UTF-8、GBK，不支持UTF-16），无法解码的字节会被替换
+     *
+     * @param <R>         结果类型
+     * @param file        文件
+     * @param charset     字符集，为null时使用系统默认字符集
+     * @param pool        线程池，null表示在当前线程依次处理各区域
+     * @param identity    每个区域的初始值
+     * @param accumulator 将一行累加到结果
+     * @param combiner    按顺序合并两个相邻区域的结果
+     * @return 结果，空文件返回identity
+     * @throws IOException IO异常
+     */
+    public static <R> R reduceLines(File file, Charset charset, ForkJoinPool pool, R identity, BiFunction<R, ? super String, R> accumulator, BinaryOperator<R> combiner) throws IOException {
+        final Charset lineCharset = lineCharset(charset);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long[] bounds = lineBounds(channel, LINE_PROCESS_REGION);
+            if (bounds.length < 2) {
+                return identity;
+            }
+            if (null == pool) {
+                R result = reduceRange(channel, bounds[0], bounds[1], lineCharset, identity, accumulator);
+                for (int i = 1; i < bounds.length - 1; i++) {
+                    result = combiner.apply(result, reduceRange(channel, bounds[i], bounds[i + 1], lineCharset, identity, accumulator));
+                }
+                return result;
+            }
+            try {
+                return pool.invoke(new ReduceLinesTask<R>(channel, bounds, 0, bounds.length - 1, lineCharset, identity, accumulator, combiner));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 并行逐行转换文件内容，按原来的顺序写入目标文件<br>
+     * 文件按字节切分为约16MB、以换行符结尾的区域，在线程池中转换，转换后的各行以\n结尾按原顺序写入目标文件（覆盖已有内容）<br>
+     * 同时处理的区域数不超过线程池并行度的2倍，内存占用与文件大小无关；区域切分和行结束符的规则见{@link #reduceLines(File, Charset, ForkJoinPool, Object, BiFunction, BinaryOperator)}
+     *
+     * @param source  源文件
+     * @param charset 源文件和目标文件的字符集，为null时使用系统默认字符集
+     * @param target  目标文件，不能与源文件相同
+     * @param pool    线程池，null表示在当前线程依次处理各区域
+     * @param mapper  行转换，返回null表示丢弃该行，会在多个线程中同时调用
+     * @return 写入的行数
+     * @throws IOException IO异常
+     * @throws IllegalArgumentException 目标文件与源文件相同
+     */
+    public static long transformLines(File source, Charset charset, File target, ForkJoinPool pool, Function<String, String> mapper) throws IOException {
+        final Charset lineCharset = lineCharset(charset);
+        if (source.getCanonicalFile().equals(target.getCanonicalFile())) {
+            throw new IllegalArgumentException(StringUtil.format("Target [{}] is the same as source!", target.getAbsolutePath()));
+        }
+        final LongAdder written = new LongAdder();
+        try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+             OutputStream out = new FileOutputStream(target)) {
+            final long[] bounds = lineBounds(channel, LINE_PROCESS_REGION);
+            final int count = bounds.length - 1;
+            if (null == pool) {
+                for (int i = 0; i < count; i++) {
+                    transformRange(channel, bounds[i], bounds[i + 1], lineCharset, mapper, written).writeTo(out);
+                }
+                return written.sum();
+            }
+            final int window = Math.max(1, pool.getParallelism()) * 2;
+            final Queue<ForkJoinTask<FastByteArrayOutputStream>> pending = new ArrayDeque<ForkJoinTask<FastByteArrayOutputStream>>();
+            try {
+                int next = 0;
+                while (next < count || false == pending.isEmpty()) {
+                    while (next < count && pending.size() < window) {
+                        final long start = bounds[next];
+                        final long end = bounds[++next];
+                        pending.add(pool.submit(() -> {
+                            try {
+                                return transformRange(channel, start, end, lineCharset, mapper, written);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }));
+                    }
+                    pending.poll().join().writeTo(out);
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                for (ForkJoinTask<FastByteArrayOutputStream> task : pending) {
+                    task.cancel(false);
+                }
+            }
+        }
+        return written.sum();
+    }
+
+    /**
+     * 检查逐行并行处理使用的字符集，换行符必须编码为单个字节\n
+     *
+     * @param charset 字符集，为null时使用系统默认字符集
+     * @return 字符集
+     */
+    private static Charset lineCharset(Charset charset) {
+        if (null == charset) {
+            charset = Charset.defaultCharset();
+        }
+        if (false == Arrays.equals("\n".getBytes(charset), new byte[]{'\n'})) {
+            throw new IllegalArgumentException(StringUtil.format("Charset [{}] is not ASCII compatible!", charset));
+        }
+        return charset;
+    }
+
+    /**
+     * 将文件切分为以换行符结尾的区域，每个区域从regionSize之后的第一个行首结束，最后一个区域到文件末尾结束
+     *
+     * @param channel    文件通道
+     * @param regionSize 区域的最小字节数
+     * @return 各区域的边界，第i个区域为[bounds[i], bounds[i + 1])，空文件只有一个元素0
+     * @throws IOException IO异常
+     */
+    private static long[] lineBounds(FileChannel channel, long regionSize) throws IOException {
+        final long size = channel.size();
+        long[] bounds = new long[(int) (size / regionSize) + 2];
+        int count = 0;
+        bounds[count++] = 0;
+        final ByteBuffer buffer = BufferPool.DEFAULT.acquireHeap(READ_SIZE);
+        try {
+            long position = regionSize;
+            while (position < size) {
+                // 从前一个字节开始查找，恰好切在行首时不必跳到下一行
+                final long lineStart = nextLineStart(channel, position - 1, size, buffer);
+                if (lineStart >= size) {
+                    break;
+                }
+                bounds[count++] = lineStart;
+                position = lineStart + regionSize;
+            }
+        } finally {
+            BufferPool.DEFAULT.release(buffer);
+        }
+        if (size > 0) {
+            bounds[count++] = size;
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * 查找指定位置及之后第一个\n的下一个位置
+     *
+     * @param channel  文件通道
+     * @param position 起始位置
+     * @param size     文件大小
+     * @param buffer   读取缓冲
+     * @return 下一行的起始位置，没有换行符时为文件大小
+     * @throws IOException IO异常
+     */
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer buffer) throws IOException {
+        while (position < size) {
+            buffer.clear();
+            final int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * 解码文件的一个区域并依次累加各行，行结束符与{@link BufferedReader#readLine()}一致
+     *
+     * @param <R>         结果类型
+     * @param channel     文件通道
+     * @param start       起始位置
+     * @param end         结束位置（不包含）
+     * @param charset     字符集
+     * @param identity    初始值
+     * @param accumulator 将一行累加到结果
+     * @return 结果
+     * @throws IOException IO异常
+     */
+    private static <R> R reduceRange(FileChannel channel, long start, long end, Charset charset, R identity, BiFunction<R, ? super String, R> accumulator) throws IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException(StringUtil.format("Line at position {} is too long!", start));
+        }
+        final CharBuffer decoded = charset.decode(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+        final char[] chars = decoded.array();
+        final int limit = decoded.arrayOffset() + decoded.limit();
+        R result = identity;
+        int lineStart = decoded.arrayOffset() + decoded.position();
+        for (int i = lineStart; i < limit; i++) {
+            final char c = chars[i];
+            if (c == '\n' || c == '\r') {
+                result = accumulator.apply(result, new String(chars, lineStart, i - lineStart));
+                if (c == '\r' && i + 1 < limit && chars[i + 1] == '\n') {
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < limit) {
+            result = accumulator.apply(result, new String(chars, lineStart, limit - lineStart));
+        }
+        return result;
+    }
+
+    /**
+     * 转换文件的一个区域，转换后的各行以\n结尾写入缓冲
+     *
+     * @param channel 文件通道
+     * @param start   起始位置
+     * @param end     结束位置（不包含）
+     * @param charset 字符集
+     * @param mapper  行转换，返回null表示丢弃该行
+     * @param written 写入的行数
+     * @return 转换后的内容
+     * @throws IOException IO异常
+     */
+    private static FastByteArrayOutputStream transformRange(FileChannel channel, long start, long end, Charset charset, Function<String, String> mapper, LongAdder written) throws IOException {
+        final FastByteArrayOutputStream out = new FastByteArrayOutputStream((int) Math.min(end - start + 1, READ_SIZE));
+        reduceRange(channel, start, end, charset, out, (buffer, line) -> {
+            final String mapped = mapper.apply(line);
+            if (null != mapped) {
+                final byte[] bytes = mapped.getBytes(charset);
+                buffer.write(bytes, 0, bytes.length);
+                buffer.write('\n');
+                written.increment();
+            }
+            return buffer;
+        });
+        return out;
+    }
+
     /**
      * 以列表的方式获取文件的所有行
      *
@@ -138,6 +783,8 @@ public final class FileUtil {
      * @param file  处理的文件
      * @param lines 需要读取的行数
      * @return 包含制定行的list
+     * @see #tail(File, int)
+     * @see #lines(File, long, long)
      */
     public final static List<String> lines(File file, int lines) {
         List<String> list = new ArrayList<>();
@@ -181,6 +828,295 @@ public final class FileUtil {
         return list;
     }
 
+    /**
+     * 读取文件的最后几行，使用系统默认字符集（与{@link #lines(File, int)}一致）
+     *
+     * @param file  文件
+     * @param lines 行数
+     * @return 最后几行，按文件中的顺序
+     * @throws IOException IO异常
+     * @see #tail(File, int, Charset)
+     */
+    public static List<String> tail(File file, int lines) throws IOException {
+        return tail(file, lines, Charset.defaultCharset());
+    }
+
+    /**
+     * 读取文件的最后几行<br>
+     * 从文件末尾按块向前查找换行符，只读取最后几行所在的内容，耗时与文件大小无关<br>
+     * 行以\n分隔，\r\n结尾时去掉\r，文件末尾的换行符不产生空行；字符集必须兼容ASCII（如UTF-8、GBK，不支持UTF-16）
+     *
+     * @param file    文件
+     * @param lines   行数
+     * @param charset 字符集，为null时使用系统默认字符集
+     * @return 最后几行，按文件中的顺序
+     * @throws IOException IO异常
+     */
+    public static List<String> tail(File file, int lines, Charset charset) throws IOException {
+        if (lines <= 0) {
+            return new ArrayList<>();
+        }
+        final Charset lineCharset = lineCharset(charset);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final ByteBuffer buffer = BufferPool.DEFAULT.acquireHeap(READ_SIZE);
+            long start = 0;
+            try {
+                final byte[] bytes = buffer.array();
+                // 文件末尾的换行符结束的是最后一行，不计入
+                long end = size - 1;
+                int found = 0;
+                search:
+                while (end > 0) {
+                    final int length = (int) Math.min(bytes.length, end);
+                    final long position = end - length;
+                    buffer.clear().limit(length);
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, position + buffer.position()) < 0) {
+                            throw new EOFException("File truncated while reading: " + file);
+                        }
+                    }
+                    for (int i = length - 1; i >= 0; i--) {
+                        if (bytes[i] == '\n' && ++found == lines) {
+                            start = position + i + 1;
+                            break search;
+                        }
+                    }
+                    end = position;
+                }
+            } finally {
+                BufferPool.DEFAULT.release(buffer);
+            }
+            return readLinesFrom(channel, start, 0, lines, lineCharset);
+        }
+    }
+
+    /**
+     * 读取文件中的指定行，使用系统默认字符集（与{@link #lines(File, int)}一致），从文件开头查找
+     *
+     * @param file     文件
+     * @param fromLine 起始行号（从0开始，包含）
+     * @param toLine   结束行号（不包含）
+     * @return 指定的行，超出文件行数的部分不返回
+     * @throws IOException IO异常
+     * @see #lines(File, long, long, Charset, LineIndex)
+     */
+    public static List<String> lines(File file, long fromLine, long toLine) throws IOException {
+        return lines(file, fromLine, toLine, Charset.defaultCharset(), null);
+    }
+
+    /**
+     * 读取文件中的指定行<br>
+     * 有索引时从起始行之前最近的记录位置开始查找，最多跳过索引间隔的行数；没有索引时从文件开头查找<br>
+     * 行以\n分隔，\r\n结尾时去掉\r；字符集必须兼容ASCII（如UTF-8、GBK，不支持UTF-16）
+     *
+     * @param file     文件
+     * @param fromLine 起始行号（从0开始，包含）
+     * @param toLine   结束行号（不包含）
+     * @param charset  字符集，为null时使用系统默认字符集
+     * @param index    文件的行索引，见{@link #lineIndex(File, int, boolean)}，为null时从文件开头查找
+     * @return 指定的行，超出文件行数的部分不返回
+     * @throws IOException IO异常
+     */
+    public static List<String> lines(File file, long fromLine, long toLine, Charset charset, LineIndex index) throws IOException {
+        if (fromLine < 0 || toLine < fromLine) {
+            throw new IllegalArgumentException(StringUtil.format("Illegal line range [{}, {})", fromLine, toLine));
+        }
+        final Charset lineCharset = lineCharset(charset);
+        long position = 0;
+        long skip = fromLine;
+        if (null != index) {
+            if (index.getLength() > file.length()) {
+                throw new IllegalArgumentException(StringUtil.format("Line index does not match file [{}]", file.getAbsolutePath()));
+            }
+            final int nearest = (int) Math.min(fromLine / index.getInterval(), index.getOffsetCount() - 1);
+            position = index.getOffset(nearest);
+            skip = fromLine - (long) nearest * index.getInterval();
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return readLinesFrom(channel, position, skip, toLine - fromLine, lineCharset);
+        }
+    }
+
+    /**
+     * 为文件建立行索引，使用默认的记录间隔，不保存
+     *
+     * @param file 文件
+     * @return 行索引
+     * @throws IOException IO异常
+     * @see #lineIndex(File, int, boolean)
+     */
+    public static LineIndex lineIndex(File file) throws IOException {
+        return lineIndex(file, LineIndex.DEFAULT_INTERVAL, false);
+    }
+
+    /**
+     * 为文件建立行索引，索引大小约为行数 / interval * 8字节<br>
+     * 保存时索引文件为文件旁边加上{@link LineIndex#FILE_SUFFIX}后缀的文件：已有索引与文件的大小和修改时间一致时直接使用；
+     * 文件变大时认为只在末尾追加了内容，从原索引的末尾继续建立；其它情况（间隔不同、文件变小、索引文件损坏等）重新建立
+     *
+     * @param file     文件
+     * @param interval 记录间隔行数，越小按行号读取时跳过的行越少，索引越大
+     * @param persist  是否读取和保存文件旁边的索引文件
+     * @return 行索引
+     * @throws IOException IO异常
+     */
+    public static LineIndex lineIndex(File file, int interval, boolean persist) throws IOException {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be greater than 0!");
+        }
+        final File indexFile = new File(file.getPath() + LineIndex.FILE_SUFFIX);
+        final long lastModified = file.lastModified();
+        LineIndex base = null;
+        if (persist && indexFile.isFile()) {
+            try {
+                base = LineIndex.read(indexFile);
+            } catch (IOException e) {
+                // 损坏的索引文件重新建立
+            }
+            if (null != base && base.isValid(file) && base.getInterval() == interval) {
+                return base;
+            }
+            if (null != base && (base.getInterval() != interval || base.getLength() >= file.length())) {
+                base = null;
+            }
+        }
+        final LineIndex index;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            index = indexLines(channel, lastModified, interval, base);
+        }
+        if (persist) {
+            index.write(indexFile);
+        }
+        return index;
+    }
+
+    /**
+     * 扫描换行符建立行索引
+     *
+     * @param channel      文件通道
+     * @param lastModified 文件的修改时间
+     * @param interval     记录间隔行数
+     * @param base         已有的索引，从它的末尾继续建立，null表示从头建立
+     * @return 行索引
+     * @throws IOException IO异常
+     */
+    private static LineIndex indexLines(FileChannel channel, long lastModified, int interval, LineIndex base) throws IOException {
+        long position = 0;
+        long lineBreaks = 0;
+        long lastLineStart = 0;
+        long[] offsets = new long[16];
+        int count = 1;
+        if (null != base) {
+            position = base.getLength();
+            lineBreaks = base.getLineBreaks();
+            lastLineStart = base.getLastLineStart();
+            count = base.getOffsetCount();
+            offsets = new long[Math.max(16, count * 2)];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = base.getOffset(i);
+            }
+        }
+        final long size = channel.size();
+        ByteBuffer heap = null;
+        try {
+            while (position < size) {
+                final ByteBuffer buffer;
+                if (size - position >= MAP_THRESHOLD) {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_SIZE, size - position));
+                } else {
+                    if (null == heap) {
+                        heap = BufferPool.DEFAULT.acquireHeap(READ_SIZE);
+                    }
+                    heap.clear();
+                    heap.limit((int) Math.min(heap.capacity(), size - position));
+                    if (channel.read(heap, position) < 0) {
+                        break;
+                    }
+                    heap.flip();
+                    buffer = heap;
+                }
+                final int limit = buffer.limit();
+                for (int i = 0; i < limit; i++) {
+                    if (buffer.get(i) == '\n') {
+                        lastLineStart = position + i + 1;
+                        if (++lineBreaks % interval == 0) {
+                            if (count == offsets.length) {
+                                offsets = Arrays.copyOf(offsets, count * 2);
+                            }
+                            offsets[count++] = lastLineStart;
+                        }
+                    }
+                }
+                position += limit;
+            }
+        } finally {
+            BufferPool.DEFAULT.release(heap);
+        }
+        return new LineIndex(interval, position, lastModified, lineBreaks, lastLineStart, Arrays.copyOf(offsets, count));
+    }
+
+    /**
+     * 从指定位置开始按\n读取行，\r\n结尾时去掉\r
+     *
+     * @param channel  文件通道
+     * @param position 起始位置，必须是行首
+     * @param skip     先跳过的行数
+     * @param count    最多读取的行数
+     * @param charset  字符集
+     * @return 读取的行
+     * @throws IOException IO异常
+     */
+    private static List<String> readLinesFrom(FileChannel channel, long position, long skip, long count, Charset charset) throws IOException {
+        final List<String> result = new ArrayList<>();
+        if (count <= 0) {
+            return result;
+        }
+        final FastByteArrayOutputStream line = new FastByteArrayOutputStream();
+        final ByteBuffer buffer = BufferPool.DEFAULT.acquireHeap(READ_SIZE);
+        try {
+            final byte[] bytes = buffer.array();
+            int read;
+            while (result.size() < count && (read = channel.read(buffer, position)) > 0) {
+                position += read;
+                int start = 0;
+                for (int i = 0; i < read && result.size() < count; i++) {
+                    if (bytes[i] == '\n') {
+                        if (skip > 0) {
+                            skip--;
+                        } else {
+                            line.write(bytes, start, i - start);
+                            result.add(decodeLine(line.toByteArray(), charset));
+                            line.reset();
+                        }
+                        start = i + 1;
+                    }
+                }
+                if (skip == 0 && result.size() < count) {
+                    line.write(bytes, start, read - start);
+                }
+                buffer.clear();
+            }
+            if (skip == 0 && result.size() < count && line.size() > 0) {
+                result.add(decodeLine(line.toByteArray(), charset));
+            }
+        } finally {
+            BufferPool.DEFAULT.release(buffer);
+        }
+        return result;
+    }
+
+    /**
+     * 解码一行，去掉末尾的\r
+     */
+    private static String decodeLine(byte[] bytes, Charset charset) {
+        int length = bytes.length;
+        if (length > 0 && bytes[length - 1] == '\r') {
+            length--;
+        }
+        return new String(bytes, 0, length, charset);
+    }
+
     /**
      * 在文件末尾追加一行
      *
@@ -369,21 +1305,26 @@ public final class FileUtil {
      * @return 是否成功
      */
     public final static boolean copy(File file, String targetFile) {
+        return copy(file, targetFile, null);
+    }
+
+    /**
+     * 复制文件
+     * 通过该方式复制文件文件越大速度越是明显
+     *
+     * @param file           需要处理的文件
+     * @param targetFile     目标文件
+     * @param streamProgress 进度条，可以为null
+     * @return 是否成功
+     */
+    public final static boolean copy(File file, String targetFile, StreamProgress streamProgress) {
         try (
                 FileInputStream fin = new FileInputStream(file);
                 FileOutputStream fout = new FileOutputStream(new File(targetFile))
         ) {
-            FileChannel in = fin.getChannel();
-            FileChannel out = fout.getChannel();
-            //设定缓冲区
-            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
-            while (in.read(buffer) != -1) {
-                //准备写入，防止其他读取，锁住文件
-                buffer.flip();
-                out.write(buffer);
-                //准备读取。将缓冲区清理完毕，移动文件内部指针
-                buffer.clear();
-            }
+            // 文件之间直接传输，不需要缓冲区
+            IoUtil.copy(fin.getChannel(), fout.getChannel(), IoUtil.DEFAULT_BUFFER_SIZE, streamProgress);
+            return true;
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -1093,4 +2034,153 @@ public final class FileUtil {
     public static List<String> readLines(File file, String charset) throws IOException {
         return readLines(file, charset, new ArrayList<String>());
     }
-}
\ No newline at end of file
+
+    /**
+     * 逐行读取文件，每读到一行即回调，内存占用与文件大小无关
+     *
+     * @param file        文件
+     * @param charset     字符集，为空时使用系统默认字符集
+     * @param lineHandler 行处理
+     * @throws IOException io异常
+     */
+    public static void forEachLine(File file, String charset, Consumer<String> lineHandler) throws IOException {
+        forEachLine(file, CharsetUtil.charset(charset), lineHandler);
+    }
+
+    /**
+     * 逐行读取文件，每读到一行即回调，内存占用与文件大小无关
+     *
+     * @param file        文件
+     * @param charset     字符集，为null时使用系统默认字符集
+     * @param lineHandler 行处理
+     * @throws IOException io异常
+     */
+    public static void forEachLine(File file, Charset charset, Consumer<String> lineHandler) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            IoUtil.forEachLine(in, charset, lineHandler);
+        }
+    }
+
+    /**
+     * 以流的方式逐行读取文件，使用系统默认字符集（与{@link #lines(File)}一致）
+     *
+     * @param file 文件
+     * @return 行的Stream，关闭时关闭文件，使用完毕后需要关闭
+     * @throws IOException io异常
+     * @see #streamLines(File, Charset)
+     */
+    public static Stream<String> streamLines(File file) throws IOException {
+        return streamLines(file, Charset.defaultCharset());
+    }
+
+    /**
+     * 以流的方式逐行读取文件
+     *
+     * @param file    文件
+     * @param charset 字符集，为空时使用系统默认字符集
+     * @return 行的Stream，关闭时关闭文件，使用完毕后需要关闭
+     * @throws IOException io异常
+     * @see #streamLines(File, Charset)
+     */
+    public static Stream<String> streamLines(File file, String charset) throws IOException {
+        return streamLines(file, CharsetUtil.charset(charset));
+    }
+
+    /**
+     * 以流的方式逐行读取文件<br>
+     * 行在使用时才读取，不会一次加载整个文件，适合处理大文件；文件在调用时打开，在关闭返回的Stream时关闭，建议使用try-with-resources<br>
+     * 与{@link java.nio.file.Files#lines(java.nio.file.Path, Charset)}不同，无法解码的字节会被替换而不是抛出异常，与{@link #readLines(File, String)}一致
+     *
+     * @param file    文件
+     * @param charset 字符集，为null时使用系统默认字符集
+     * @return 行的Stream，读取失败时抛出{@link UncheckedIOException}
+     * @throws IOException io异常
+     */
+    public static Stream<String> streamLines(File file, Charset charset) throws IOException {
+        final InputStream in = new FileInputStream(file);
+        try {
+            return IoUtil.streamLines(in, charset);
+        } catch (IOException | RuntimeException | Error e) {
+            IoUtil.close(in);
+            throw e;
+        }
+    }
+
+    /**
+     * 并行统计文件中指定字节数量的任务，超过{@link #LINE_COUNT_REGION}时二分
+     */
+    private static class CountByteTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long start;
+        private final long end;
+        private final byte target;
+
+        private CountByteTask(FileChannel channel, long start, long end, byte target) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.target = target;
+        }
+
+        @Override
+        protected Long compute() {
+            if (end - start <= LINE_COUNT_REGION) {
+                try {
+                    return countByte(channel, start, end - start, target);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            final long middle = start + (end - start) / 2;
+            final CountByteTask right = new CountByteTask(channel, middle, end, target);
+            right.fork();
+            final long left = new CountByteTask(channel, start, middle, target).compute();
+            return left + right.join();
+        }
+    }
+
+    /**
+     * 并行归约文件各区域的任务，区域多于一个时二分，按顺序合并左右两部分的结果
+     */
+    private static class ReduceLinesTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final int from;
+        private final int to;
+        private final Charset charset;
+        private final R identity;
+        private final BiFunction<R, ? super String, R> accumulator;
+        private final BinaryOperator<R> combiner;
+
+        private ReduceLinesTask(FileChannel channel, long[] bounds, int from, int to, Charset charset, R identity, BiFunction<R, ? super String, R> accumulator, BinaryOperator<R> combiner) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.from = from;
+            this.to = to;
+            this.charset = charset;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= 1) {
+                try {
+                    return reduceRange(channel, bounds[from], bounds[to], charset, identity, accumulator);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            final int middle = (from + to) >>> 1;
+            final ReduceLinesTask<R> right = new ReduceLinesTask<R>(channel, bounds, middle, to, charset, identity, accumulator, combiner);
+            right.fork();
+            final R left = new ReduceLinesTask<R>(channel, bounds, from, middle, charset, identity, accumulator, combiner).compute();
+            return combiner.apply(left, right.join());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.zscp.master.util;
+
+import java.util.Arrays;
+
+/**
+ * 十六进制编解码<br>
+ * 编码与解码都通过查表完成，可以直接写入调用方提供的数组，解码时不截取子串
+ */
+public final class HexUtil {
+
+    private static final char[] DIGITS_LOWER = "0123456789abcdef".toCharArray();
+    private static final char[] DIGITS_UPPER = "0123456789ABCDEF".toCharArray();
+    /**
+     * 字符对应的数值，下标为字符，非十六进制字符为-1
+     */
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            VALUES[DIGITS_LOWER[i]] = (byte) i;
+            VALUES[DIGITS_UPPER[i]] = (byte) i;
+        }
+    }
+
+    private HexUtil() {
+    }
+
+    /**
+     * 编码为小写十六进制字符串
+     *
+     * @param data 数据
+     * @return 十六进制字符串
+     */
+    public static String encodeHexStr(byte[] data) {
+        return encodeHexStr(data, true);
+    }
+
+    /**
+     * 编码为十六进制字符串
+     *
+     * @param data        数据
+     * @param toLowerCase 是否小写
+     * @return 十六进制字符串
+     */
+    public static String encodeHexStr(byte[] data, boolean toLowerCase) {
+        return new String(encodeHex(data, toLowerCase));
+    }
+
+    /**
+     * 编码为十六进制字符数组
+     *
+     * @param data        数据
+     * @param toLowerCase 是否小写
+     * @return 十六进制字符数组
+     */
+    public static char[] encodeHex(byte[] data, boolean toLowerCase) {
+        char[] out = new char[data.length << 1];
+        encodeHex(data, 0, data.length, out, 0, toLowerCase);
+        return out;
+    }
+
+    /**
+     * 编码到指定的字符数组
+     *
+     * @param data        数据
+     * @param offset      数据起始位置
+     * @param length      数据长度
+     * @param out         输出，剩余空间不少于length * 2
+     * @param outOffset   输出起始位置
+     * @param toLowerCase 是否小写
+     * @return 写入的字符数
+     */
+    public static int encodeHex(byte[] data, int offset, int length, char[] out, int outOffset, boolean toLowerCase) {
+        final char[] digits = toLowerCase ? DIGITS_LOWER : DIGITS_UPPER;
+        for (int i = offset, j = outOffset, end = offset + length; i < end; i++) {
+            final int b = data[i];
+            out[j++] = digits[(b >>> 4) & 0x0F];
+            out[j++] = digits[b & 0x0F];
+        }
+        return length << 1;
+    }
+
+    /**
+     * 编码到指定的byte数组（ASCII），可直接写入输出缓冲
+     *
+     * @param data        数据
+     * @param offset      数据起始位置
+     * @param length      数据长度
+     * @param out         输出，剩余空间不少于length * 2
+     * @param outOffset   输出起始位置
+     * @param toLowerCase 是否小写
+     * @return 写入的字节数
+     */
+    public static int encodeHex(byte[] data, int offset, int length, byte[] out, int outOffset, boolean toLowerCase) {
+        final char[] digits = toLowerCase ? DIGITS_LOWER : DIGITS_UPPER;
+        for (int i = offset, j = outOffset, end = offset + length; i < end; i++) {
+            final int b = data[i];
+            out[j++] = (byte) digits[(b >>> 4) & 0x0F];
+            out[j++] = (byte) digits[b & 0x0F];
+        }
+        return length << 1;
+    }
+
+    /**
+     * 解码十六进制字符串，不区分大小写
+     *
+     * @param hex 十六进制字符串
+     * @return 数据
+     * @throws IllegalArgumentException 长度为奇数或包含非十六进制字符
+     */
+    public static byte[] decodeHex(CharSequence hex) {
+        final int length = hex.length();
+        if ((length & 1) != 0) {
+            throw new IllegalArgumentException(StringUtil.format("Odd number of characters: {}", length));
+        }
+        final byte[] out = new byte[length >> 1];
+        decodeHex(hex, 0, length, out, 0);
+        return out;
+    }
+
+    /**
+     * 解码十六进制字符串的一部分到指定的数组，不区分大小写
+     *
+     * @param hex       十六进制字符串
+     * @param start     起始位置
+     * @param end       结束位置（不包含），与起始位置之差必须为偶数
+     * @param out       输出，剩余空间不少于(end - start) / 2
+     * @param outOffset 输出起始位置
+     * @return 写入的字节数
+     * @throws IllegalArgumentException 长度为奇数或包含非十六进制字符
+     */
+    public static int decodeHex(CharSequence hex, int start, int end, byte[] out, int outOffset) {
+        if (((end - start) & 1) != 0) {
+            throw new IllegalArgumentException(StringUtil.format("Odd number of characters: {}", end - start));
+        }
+        for (int i = start, j = outOffset; i < end; i += 2) {
+            out[j++] = (byte) ((toDigit(hex.charAt(i), i) << 4) | toDigit(hex.charAt(i + 1), i + 1));
+        }
+        return (end - start) >> 1;
+    }
+
+    /**
+     * 十六进制字符对应的数值
+     *
+     * @param c     字符
+     * @param index 字符的位置，用于异常信息
+     * @return 数值
+     */
+    private static int toDigit(char c, int index) {
+        final int digit = c < 128 ? VALUES[c] : -1;
+        if (digit < 0) {
+            throw new IllegalArgumentException(StringUtil.format("Illegal hexadecimal character {} at index {}", c, index));
+        }
+        return digit;
+    }
+}
@@ -1,6 +1,7 @@
 package com.zscp.master.util;
 
 import com.zscp.master.util.bean.StreamProgress;
+import com.zscp.master.util.bean.ThrottledProgress;
 
 import javax.servlet.http.HttpServletRequest;
 import java.io.*;
@@ -174,7 +175,6 @@ public class HttpUtil {
         URL url = null;
         HttpURLConnection conn = null;
         InputStream is = null;
-        ByteArrayOutputStream baos = null;
         try {
             url = new URL(urlStr);
             conn = (HttpURLConnection) url.openConnection();
@@ -185,15 +185,7 @@ public class HttpUtil {
             conn.setRequestProperty("connection", "Keep-Alive");
             if (conn.getResponseCode() == 200) {
                 is = conn.getInputStream();
-                baos = new ByteArrayOutputStream();
-                int len = -1;
-                byte[] buf = new byte[128];
-
-                while ((len = is.read(buf)) != -1) {
-                    baos.write(buf, 0, len);
-                }
-                baos.flush();
-                return baos.toString();
+                return IoUtil.read(is).toString();
             } else {
                 throw new RuntimeException(" responseCode is not 200 ... ");
             }
@@ -207,12 +199,6 @@ public class HttpUtil {
                 }
             } catch (IOException e) {
             }
-            try {
-                if (baos != null) {
-                    baos.close();
-                }
-            } catch (IOException e) {
-            }
             conn.disconnect();
         }
 
@@ -286,8 +272,10 @@ public class HttpUtil {
 
         InputStream in = null;
         try {
-            in = new URL(url).openStream();
-            return IoUtil.copyByNIO(in, out, IoUtil.DEFAULT_BUFFER_SIZE, streamProgress);
+            URLConnection conn = new URL(url).openConnection();
+            in = conn.getInputStream();
+            // 响应头中有长度时进度条可以计算预计剩余时间
+            return IoUtil.copyByNIO(in, out, IoUtil.DEFAULT_BUFFER_SIZE, ThrottledProgress.wrap(streamProgress, conn.getContentLengthLong()));
         } catch (IOException e) {
             throw e;
         } finally {
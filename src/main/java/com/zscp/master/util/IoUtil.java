@@ -1,18 +1,29 @@
 package com.zscp.master.util;
 
+import com.zscp.master.util.bean.BufferPool;
 import com.zscp.master.util.bean.FastByteArrayOutputStream;
 import com.zscp.master.util.bean.StreamProgress;
+import com.zscp.master.util.bean.ThrottledProgress;
 
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.MappedByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.Channels;
+import java.nio.channels.CompletionHandler;
 import java.nio.channels.FileChannel;
 import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.util.Collection;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * IO工具类
@@ -24,7 +35,11 @@ public class IoUtil {
     /**
      * 默认缓存大小
      */
-    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    /**
+     * 通道间直接传输时每次传输的最大字节数，也是报告进度的间隔
+     */
+    private static final long TRANSFER_CHUNK_SIZE = 8 * 1024 * 1024;
     /**
      * 数据流末尾
      */
@@ -68,6 +83,10 @@ public class IoUtil {
      * @throws IOException 异常
      */
     public static long copy(Reader reader, Writer writer, int bufferSize, StreamProgress streamProgress) throws IOException {
+        if (bufferSize <= 0) {
+            bufferSize = DEFAULT_BUFFER_SIZE;
+        }
+        streamProgress = ThrottledProgress.wrap(streamProgress, -1);
         char[] buffer = new char[bufferSize];
         long size = 0;
         int readSize;
@@ -77,11 +96,11 @@ public class IoUtil {
         while ((readSize = reader.read(buffer, 0, bufferSize)) != EOF) {
             writer.write(buffer, 0, readSize);
             size += readSize;
-            writer.flush();
             if (null != streamProgress) {
                 streamProgress.progress(size);
             }
         }
+        writer.flush();
         if (null != streamProgress) {
             streamProgress.finish();
         }
@@ -114,7 +133,9 @@ public class IoUtil {
     }
 
     /**
-     * 拷贝流
+     * 拷贝流，只在结束时flush一次<br>
+     * 文件流之间的拷贝使用{@link FileChannel#transferTo(long, long, WritableByteChannel)}，数据不经过用户态缓冲<br>
+     * 进度条通过{@link ThrottledProgress}限制回调频率
      *
      * @param in             输入流
      * @param out            输出流
@@ -124,29 +145,47 @@ public class IoUtil {
      * @throws IOException 异常
      */
     public static long copy(InputStream in, OutputStream out, int bufferSize, StreamProgress streamProgress) throws IOException {
+        return copy(in, out, bufferSize, streamProgress, null);
+    }
+
+    /**
+     * 拷贝流，每读写一次检查任务是否已取消
+     *
+     * @param task 所属的异步任务，已完成（取消）时抛出{@link CancellationException}，可以为null
+     */
+    private static long copy(InputStream in, OutputStream out, int bufferSize, StreamProgress streamProgress, Future<?> task) throws IOException {
         if (null == in) {
             throw new NullPointerException("InputStream is null!");
         }
         if (null == out) {
             throw new NullPointerException("OutputStream is null!");
         }
+        if (in instanceof FileInputStream && out instanceof FileOutputStream && canTransfer(((FileInputStream) in).getChannel())) {
+            return transfer(((FileInputStream) in).getChannel(), ((FileOutputStream) out).getChannel(), streamProgress, task);
+        }
         if (bufferSize <= 0) {
             bufferSize = DEFAULT_BUFFER_SIZE;
         }
 
-        byte[] buffer = new byte[bufferSize];
+        streamProgress = ThrottledProgress.wrap(streamProgress, -1);
+        byte[] buffer = BufferPool.DEFAULT.acquireBytes(bufferSize);
         long size = 0;
-        if (null != streamProgress) {
-            streamProgress.start();
-        }
-        for (int readSize = -1; (readSize = in.read(buffer)) != EOF; ) {
-            out.write(buffer, 0, readSize);
-            size += readSize;
-            out.flush();
+        try {
             if (null != streamProgress) {
-                streamProgress.progress(size);
+                streamProgress.start();
+            }
+            for (int readSize = -1; (readSize = in.read(buffer, 0, bufferSize)) != EOF; ) {
+                checkCancelled(task);
+                out.write(buffer, 0, readSize);
+                size += readSize;
+                if (null != streamProgress) {
+                    streamProgress.progress(size);
+                }
             }
+        } finally {
+            BufferPool.DEFAULT.release(buffer);
         }
+        out.flush();
         if (null != streamProgress) {
             streamProgress.finish();
         }
@@ -170,7 +209,7 @@ public class IoUtil {
 
 
     /**
-     * 拷贝文件流，使用NIO
+     * 拷贝文件流，使用NIO，从输入流的当前位置拷贝到末尾，拷贝后输入流的位置移动到末尾
      *
      * @param in  输入
      * @param out 输出
@@ -185,14 +224,12 @@ public class IoUtil {
             throw new NullPointerException("FileOutputStream is null!");
         }
 
-        FileChannel inChannel = in.getChannel();
-        FileChannel outChannel = out.getChannel();
-
-        return inChannel.transferTo(0, inChannel.size(), outChannel);
+        return copy(in, out, DEFAULT_BUFFER_SIZE, null);
     }
 
     /**
-     * 拷贝流，使用NIO，不会关闭流
+     * 拷贝流，使用NIO，不会关闭流<br>
+     * 输入为{@link FileChannel}时使用{@link FileChannel#transferTo(long, long, WritableByteChannel)}直接传输
      *
      * @param in             {@link ReadableByteChannel}
      * @param out            {@link WritableByteChannel}
@@ -209,24 +246,156 @@ public class IoUtil {
             throw new NullPointerException("Out is null!");
         }
 
-        ByteBuffer byteBuffer = ByteBuffer.allocate(bufferSize);
+        if (in instanceof FileChannel && canTransfer((FileChannel) in)) {
+            return transfer((FileChannel) in, out, streamProgress, null);
+        }
+        if (bufferSize <= 0) {
+            bufferSize = DEFAULT_BUFFER_SIZE;
+        }
+
+        streamProgress = ThrottledProgress.wrap(streamProgress, -1);
+        // 通道读写直接内存缓冲时不需要JDK再复制一次
+        ByteBuffer byteBuffer = BufferPool.DEFAULT.acquireDirect(bufferSize);
         long size = 0;
+        try {
+            if (null != streamProgress) {
+                streamProgress.start();
+            }
+            byteBuffer.limit(bufferSize);
+            while (in.read(byteBuffer) != EOF) {
+                byteBuffer.flip();
+                while (byteBuffer.hasRemaining()) {
+                    size += out.write(byteBuffer);
+                }
+                byteBuffer.clear().limit(bufferSize);
+                if (null != streamProgress) {
+                    streamProgress.progress(size);
+                }
+            }
+        } finally {
+            BufferPool.DEFAULT.release(byteBuffer);
+        }
+        if (null != streamProgress) {
+            streamProgress.finish();
+        }
+
+        return size;
+    }
+
+    /**
+     * 文件通道能否直接传输，管道等没有确定大小的通道只能按流读取
+     *
+     * @param channel 文件通道
+     * @return 当前位置之后是否还有内容
+     */
+    private static boolean canTransfer(FileChannel channel) {
+        try {
+            return channel.size() > channel.position();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 从文件通道的当前位置开始，将剩余内容直接传输到目标通道，传输后文件通道的位置移动到传输结束的位置
+     *
+     * @param in             文件通道
+     * @param out            目标通道
+     * @param streamProgress 进度条
+     * @param task           所属的异步任务，可以为null
+     * @return 传输的字节数
+     * @throws IOException 异常
+     */
+    private static long transfer(FileChannel in, WritableByteChannel out, StreamProgress streamProgress, Future<?> task) throws IOException {
+        final long start = in.position();
+        final long end = in.size();
+        long position = start;
+        streamProgress = ThrottledProgress.wrap(streamProgress, end - start);
         if (null != streamProgress) {
             streamProgress.start();
         }
-        while (in.read(byteBuffer) != EOF) {
-            byteBuffer.flip();
-            size += out.write(byteBuffer);
-            byteBuffer.clear();
+        while (position < end) {
+            checkCancelled(task);
+            long transferred = in.transferTo(position, Math.min(TRANSFER_CHUNK_SIZE, end - position), out);
+            if (transferred <= 0) {
+                // 文件被截断
+                break;
+            }
+            position += transferred;
             if (null != streamProgress) {
-                streamProgress.progress(size);
+                streamProgress.progress(position - start);
             }
         }
+        in.position(position);
         if (null != streamProgress) {
             streamProgress.finish();
         }
+        return position - start;
+    }
 
-        return size;
+    /**
+     * 检查异步任务是否已取消
+     *
+     * @param task 异步任务，可以为null
+     */
+    private static void checkCancelled(Future<?> task) {
+        if (null != task && task.isDone()) {
+            throw new CancellationException("Copy cancelled");
+        }
+    }
+
+    /**
+     * 异步拷贝流，在线程池中执行，不会关闭流<br>
+     * 取消返回的Future后，拷贝在下一次读写前停止，已写入的内容不会回滚
+     *
+     * @param in             输入流
+     * @param out            输出流
+     * @param bufferSize     缓存大小
+     * @param streamProgress 进度条，在线程池的线程中回调
+     * @param executor       执行拷贝的线程池
+     * @return 传输的byte数
+     */
+    public static CompletableFuture<Long> copyAsync(InputStream in, OutputStream out, int bufferSize, StreamProgress streamProgress, Executor executor) {
+        if (null == executor) {
+            throw new NullPointerException("Executor is null!");
+        }
+        final CompletableFuture<Long> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(copy(in, out, bufferSize, streamProgress, future));
+            } catch (CancellationException e) {
+                future.cancel(false);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 异步拷贝文件，使用{@link AsynchronousFileChannel}，读写期间不占用线程，目标文件已存在时覆盖<br>
+     * 取消返回的Future后关闭文件，已写入的内容不会回滚
+     *
+     * @param source         源文件
+     * @param target         目标文件
+     * @param streamProgress 进度条，在异步通道的线程中回调
+     * @return 传输的byte数
+     */
+    public static CompletableFuture<Long> copyAsync(File source, File target, StreamProgress streamProgress) {
+        final CompletableFuture<Long> future = new CompletableFuture<>();
+        AsynchronousFileChannel in = null;
+        AsynchronousFileChannel out = null;
+        try {
+            in = AsynchronousFileChannel.open(source.toPath(), StandardOpenOption.READ);
+            out = AsynchronousFileChannel.open(target.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            final long size = in.size();
+            new AsyncFileCopy(in, out, size, ThrottledProgress.wrap(streamProgress, size), future).start();
+        } catch (IOException e) {
+            close(in);
+            close(out);
+            future.completeExceptionally(e);
+        }
+        return future;
     }
     // -------------------------------------------------------------------------------------- Copy end
 
@@ -430,6 +599,63 @@ public class IoUtil {
         return collection;
     }
 
+    /**
+     * 逐行读取流中的内容，不会关闭流<br>
+     * 每读到一行即回调，不保留已读取的行，内存占用与流的大小无关
+     *
+     * @param in          输入流
+     * @param charsetName 字符集，为空时使用系统默认字符集
+     * @param lineHandler 行处理
+     * @throws IOException 异常
+     */
+    public static void forEachLine(InputStream in, String charsetName, Consumer<String> lineHandler) throws IOException {
+        forEachLine(in, CharsetUtil.charset(charsetName), lineHandler);
+    }
+
+    /**
+     * 逐行读取流中的内容，不会关闭流<br>
+     * 每读到一行即回调，不保留已读取的行，内存占用与流的大小无关
+     *
+     * @param in          输入流
+     * @param charset     字符集，为null时使用系统默认字符集
+     * @param lineHandler 行处理
+     * @throws IOException 异常
+     */
+    public static void forEachLine(InputStream in, Charset charset, Consumer<String> lineHandler) throws IOException {
+        BufferedReader reader = getReader(in, charset);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineHandler.accept(line);
+        }
+    }
+
+    /**
+     * 以流的方式逐行读取，行在使用时才读取，关闭返回的Stream时关闭输入流<br>
+     * 读取失败时抛出{@link UncheckedIOException}
+     *
+     * @param in          输入流
+     * @param charsetName 字符集，为空时使用系统默认字符集
+     * @return 行的Stream，使用完毕后需要关闭
+     * @throws IOException 异常
+     */
+    public static Stream<String> streamLines(InputStream in, String charsetName) throws IOException {
+        return streamLines(in, CharsetUtil.charset(charsetName));
+    }
+
+    /**
+     * 以流的方式逐行读取，行在使用时才读取，关闭返回的Stream时关闭输入流<br>
+     * 读取失败时抛出{@link UncheckedIOException}
+     *
+     * @param in      输入流
+     * @param charset 字符集，为null时使用系统默认字符集
+     * @return 行的Stream，使用完毕后需要关闭
+     * @throws IOException 异常
+     */
+    public static Stream<String> streamLines(InputStream in, Charset charset) throws IOException {
+        final BufferedReader reader = getReader(in, charset);
+        return reader.lines().onClose(() -> close(reader));
+    }
+
     /**
      * String 转为流
      *
@@ -556,4 +782,140 @@ public class IoUtil {
         } catch (Exception e) {
         }
     }
+
+    /**
+     * 基于{@link AsynchronousFileChannel}的文件拷贝，读完一块后在回调中写入，写完后再读下一块
+     */
+    private static class AsyncFileCopy {
+        private static final int BUFFER_SIZE = 1024 * 1024;
+
+        private final AsynchronousFileChannel in;
+        private final AsynchronousFileChannel out;
+        private final long size;
+        private final StreamProgress streamProgress;
+        private final CompletableFuture<Long> future;
+        private final ByteBuffer buffer = BufferPool.DEFAULT.acquireDirect(BUFFER_SIZE);
+        /**
+         * 下一次读取的位置
+         */
+        private long position;
+        /**
+         * 当前缓冲写入的位置
+         */
+        private long writePosition;
+
+        private final CompletionHandler<Integer, Void> readHandler = new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer read, Void attachment) {
+                if (read < 0) {
+                    succeed();
+                    return;
+                }
+                buffer.flip();
+                writePosition = position;
+                position += read;
+                write();
+            }
+
+            @Override
+            public void failed(Throwable e, Void attachment) {
+                fail(e);
+            }
+        };
+
+        private final CompletionHandler<Integer, Void> writeHandler = new CompletionHandler<Integer, Void>() {
+            @Override
+            public void completed(Integer written, Void attachment) {
+                writePosition += written;
+                if (buffer.hasRemaining()) {
+                    write();
+                    return;
+                }
+                if (null != streamProgress) {
+                    streamProgress.progress(position);
+                }
+                read();
+            }
+
+            @Override
+            public void failed(Throwable e, Void attachment) {
+                fail(e);
+            }
+        };
+
+        private AsyncFileCopy(AsynchronousFileChannel in, AsynchronousFileChannel out, long size, StreamProgress streamProgress, CompletableFuture<Long> future) {
+            this.in = in;
+            this.out = out;
+            this.size = size;
+            this.streamProgress = streamProgress;
+            this.future = future;
+        }
+
+        private void start() {
+            // 取消时关闭文件，正在进行的读写随之失败并释放缓冲
+            future.whenComplete((result, e) -> {
+                close(in);
+                close(out);
+            });
+            if (null != streamProgress) {
+                streamProgress.start();
+            }
+            read();
+        }
+
+        private void read() {
+            if (future.isDone()) {
+                release();
+                return;
+            }
+            if (position >= size) {
+                succeed();
+                return;
+            }
+            buffer.clear();
+            if (size - position < buffer.capacity()) {
+                buffer.limit((int) (size - position));
+            }
+            try {
+                in.read(buffer, position, null, readHandler);
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        private void write() {
+            if (future.isDone()) {
+                release();
+                return;
+            }
+            try {
+                out.write(buffer, writePosition, null, writeHandler);
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }
+
+        private void succeed() {
+            release();
+            try {
+                out.force(false);
+            } catch (IOException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            if (null != streamProgress) {
+                streamProgress.finish();
+            }
+            future.complete(position);
+        }
+
+        private void fail(Throwable e) {
+            release();
+            future.completeExceptionally(e);
+        }
+
+        private void release() {
+            BufferPool.DEFAULT.release(buffer);
+        }
+    }
 }
@@ -1,6 +1,23 @@
 package com.zscp.master.util;
 
+import com.zscp.master.util.bean.LRUCache;
+import com.zscp.master.util.bean.StreamMatcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -10,6 +27,51 @@ import java.util.regex.Pattern;
  */
 public final class RegUtil {
 
+    /**
+     * 正则缓存的最大数量
+     */
+    public static final int PATTERN_CACHE_SIZE = 512;
+
+    /**
+     * 编译后的正则缓存，key为正则和标志
+     */
+    private static final LRUCache<PatternKey, Pattern> PATTERN_CACHE = new LRUCache<>(PATTERN_CACHE_SIZE);
+
+    /**
+     * 编译正则，编译结果会被缓存
+     *
+     * @param regex 正则
+     * @return 编译后的正则模式
+     */
+    public static Pattern compile(String regex) {
+        return compile(regex, 0);
+    }
+
+    /**
+     * 编译正则，编译结果会被缓存，缓存满时淘汰最久未使用的正则
+     *
+     * @param regex 正则
+     * @param flags 标志，如{@link Pattern#DOTALL}
+     * @return 编译后的正则模式
+     */
+    public static Pattern compile(String regex, int flags) {
+        return PATTERN_CACHE.get(new PatternKey(regex, flags), key -> Pattern.compile(key.regex, key.flags));
+    }
+
+    /**
+     * @return 正则缓存命中的次数
+     */
+    public static long getPatternCacheHitCount() {
+        return PATTERN_CACHE.hitCount();
+    }
+
+    /**
+     * @return 正则缓存未命中（重新编译）的次数
+     */
+    public static long getPatternCacheMissCount() {
+        return PATTERN_CACHE.missCount();
+    }
+
     /**
      * 获取符合reg正则表达式的字符串在String中出现的次数
      *
@@ -18,8 +80,7 @@ public final class RegUtil {
      * @return 出现的次数
      */
     public final static int countSubStrReg(String str, String reg) {
-        Pattern p = Pattern.compile(reg);
-        Matcher m = p.matcher(str);
+        Matcher m = compile(reg).matcher(str);
         int i = 0;
         while (m.find()) {
             i++;
@@ -40,7 +101,7 @@ public final class RegUtil {
             return null;
         }
 
-        Pattern pattern = Pattern.compile(regex, Pattern.DOTALL);
+        Pattern pattern = compile(regex, Pattern.DOTALL);
         return getMatchValue(pattern, content, groupIndex);
     }
 
@@ -103,7 +164,156 @@ public final class RegUtil {
             return null;
         }
 
-        Pattern pattern = Pattern.compile(regex, Pattern.DOTALL);
+        Pattern pattern = compile(regex, Pattern.DOTALL);
         return getAllMatchValues(pattern,content,group,collection);
     }
+
+    /**
+     * 流式查找字符流中匹配的所有结果，内容按窗口读入，内存占用与输入大小无关<br>
+     * 单个匹配的长度不能超过{@link StreamMatcher#DEFAULT_OVERLAP}，需要更长的匹配时直接使用{@link StreamMatcher}
+     *
+     * @param pattern  编译后的正则模式
+     * @param reader   字符流，读取完毕后不关闭
+     * @param group    正则的分组
+     * @param consumer 匹配结果的处理方法
+     * @return 匹配的数量
+     * @throws IOException 读取失败
+     */
+    public static long getAllMatchValues(Pattern pattern, Reader reader, int group, Consumer<String> consumer) throws IOException {
+        final StreamMatcher matcher = new StreamMatcher(pattern, reader);
+        long count = 0;
+        while (matcher.find()) {
+            consumer.accept(matcher.group(group));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 流式查找输入流中匹配的所有结果
+     *
+     * @param pattern  编译后的正则模式
+     * @param in       输入流，读取完毕后不关闭
+     * @param charset  字符集
+     * @param group    正则的分组
+     * @param consumer 匹配结果的处理方法
+     * @return 匹配的数量
+     * @throws IOException 读取失败
+     */
+    public static long getAllMatchValues(Pattern pattern, InputStream in, Charset charset, int group, Consumer<String> consumer) throws IOException {
+        return getAllMatchValues(pattern, new InputStreamReader(in, charset), group, consumer);
+    }
+
+    /**
+     * 流式查找文件中匹配的所有结果
+     *
+     * @param pattern  编译后的正则模式
+     * @param file     文件
+     * @param charset  字符集
+     * @param group    正则的分组
+     * @param consumer 匹配结果的处理方法
+     * @return 匹配的数量
+     * @throws IOException 读取失败
+     */
+    public static long getAllMatchValues(Pattern pattern, File file, Charset charset, int group, Consumer<String> consumer) throws IOException {
+        return getAllMatchValues(pattern, file.toPath(), charset, group, consumer);
+    }
+
+    /**
+     * 流式查找文件中匹配的所有结果
+     *
+     * @param pattern  编译后的正则模式
+     * @param path     文件路径
+     * @param charset  字符集
+     * @param group    正则的分组
+     * @param consumer 匹配结果的处理方法
+     * @return 匹配的数量
+     * @throws IOException 读取失败
+     */
+    public static long getAllMatchValues(Pattern pattern, Path path, Charset charset, int group, Consumer<String> consumer) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return getAllMatchValues(pattern, in, charset, group, consumer);
+        }
+    }
+
+    /**
+     * 以惰性流的形式返回字符流中匹配的所有结果，流关闭时关闭字符流<br>
+     * 读取失败时抛出{@link UncheckedIOException}
+     *
+     * @param pattern 编译后的正则模式
+     * @param reader  字符流
+     * @param group   正则的分组
+     * @return 匹配结果的流
+     */
+    public static Stream<String> streamMatchValues(Pattern pattern, Reader reader, int group) {
+        final StreamMatcher matcher = new StreamMatcher(pattern, reader);
+        final Spliterator<String> spliterator = new Spliterators.AbstractSpliterator<String>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super String> action) {
+                try {
+                    if (matcher.find()) {
+                        action.accept(matcher.group(group));
+                        return true;
+                    }
+                    return false;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                matcher.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * 以惰性流的形式返回文件中匹配的所有结果，使用完毕后需要关闭流
+     *
+     * @param pattern 编译后的正则模式
+     * @param path    文件路径
+     * @param charset 字符集
+     * @param group   正则的分组
+     * @return 匹配结果的流
+     * @throws IOException 打开文件失败
+     */
+    public static Stream<String> streamMatchValues(Pattern pattern, Path path, Charset charset, int group) throws IOException {
+        return streamMatchValues(pattern, new InputStreamReader(Files.newInputStream(path), charset), group);
+    }
+
+    /**
+     * 正则缓存的key
+     */
+    private static final class PatternKey {
+        private final String regex;
+        private final int flags;
+
+        private PatternKey(String regex, int flags) {
+            if (null == regex) {
+                throw new NullPointerException("Regex is null!");
+            }
+            this.regex = regex;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PatternKey)) {
+                return false;
+            }
+            PatternKey other = (PatternKey) o;
+            return flags == other.flags && regex.equals(other.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return regex.hashCode() * 31 + flags;
+        }
+    }
 }
@@ -1,5 +1,8 @@
 package com.zscp.master.util;
 
+import com.zscp.master.util.bean.LRUCache;
+import com.zscp.master.util.bean.StrTemplate;
+
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.nio.ByteBuffer;
@@ -8,7 +11,6 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * 提供些常用的字符串相关的工具方法
@@ -52,6 +54,16 @@ public final class StringUtil {
 
     public static final String EMPTY_JSON = "{}";
 
+    /**
+     * 编译后的文本模板缓存的最大数量
+     */
+    public static final int TEMPLATE_CACHE_SIZE = 1024;
+
+    /**
+     * 编译后的文本模板缓存
+     */
+    private static final LRUCache<String, StrTemplate> TEMPLATE_CACHE = new LRUCache<>(TEMPLATE_CACHE_SIZE);
+
 
     // ------------------------------------------------------------------------ Trim
 
@@ -691,6 +703,7 @@ public final class StringUtil {
      * 通常使用：format("this is {} for {}", "a", "b")  to this is a for b
      * 转义{}： format("this is \\{} for {}", "a", "b")  to this is \{} for a
      * 转义\： format("this is \\\\{} for {}", "a", "b")  to this is \a for b
+     * 模板编译后会被缓存，见 {@link #template(String)}
      *
      * @param template 文本模板，被替换的部分用 {} 表示
      * @param params   参数值
@@ -700,54 +713,23 @@ public final class StringUtil {
         if ((params == null || params.length == 0) || ValidUtil.isEmpty(template)) {
             return template;
         }
-        String strPattern = template;
+        return template(template).format(params);
+    }
 
-        Object[] argArray = params;
-        if (ValidUtil.isEmpty(strPattern) || (argArray == null || argArray.length == 0)) {
-            return strPattern;
-        }
-        final int strPatternLength = strPattern.length();
-
-        //初始化定义好的长度以获得更好的性能
-        StringBuilder sbuf = new StringBuilder(strPatternLength + 50);
-
-        int handledPosition = 0;//记录已经处理到的位置
-        int delimIndex;//占位符所在位置
-        for (int argIndex = 0; argIndex < argArray.length; argIndex++) {
-            delimIndex = strPattern.indexOf(StringUtil.EMPTY_JSON, handledPosition);
-            if (delimIndex == -1) {//剩余部分无占位符
-                if (handledPosition == 0) { //不带占位符的模板直接返回
-                    return strPattern;
-                } else { //字符串模板剩余部分不再包含占位符，加入剩余部分后返回结果
-                    sbuf.append(strPattern, handledPosition, strPatternLength);
-                    return sbuf.toString();
-                }
-            } else {
-                if (delimIndex > 0 && strPattern.charAt(delimIndex - 1) == StringUtil.C_BACKSLASH) {//转义符
-                    if (delimIndex > 1 && strPattern.charAt(delimIndex - 2) == StringUtil.C_BACKSLASH) {//双转义符
-                        //转义符之前还有一个转义符，占位符依旧有效
-                        sbuf.append(strPattern, handledPosition, delimIndex - 1);
-                        sbuf.append(argArray[argIndex].toString());
-                        handledPosition = delimIndex + 2;
-                    } else {
-                        //占位符被转义
-                        argIndex--;
-                        sbuf.append(strPattern, handledPosition, delimIndex - 1);
-                        sbuf.append(StringUtil.C_DELIM_START);
-                        handledPosition = delimIndex + 1;
-                    }
-                } else {//正常占位符
-                    sbuf.append(strPattern, handledPosition, delimIndex);
-                    sbuf.append(argArray[argIndex].toString());
-                    handledPosition = delimIndex + 2;
-                }
-            }
+    /**
+     * 获取编译后的文本模板，{} 表示占位符，规则同 {@link #format(String, Object...)}<br>
+     * 编译结果会被缓存，同一模板只解析一次
+     *
+     * @param template 文本模板，被替换的部分用 {} 表示
+     * @return 编译后的模板
+     */
+    public static StrTemplate template(String template) {
+        StrTemplate strTemplate = TEMPLATE_CACHE.get(template);
+        if (null == strTemplate) {
+            strTemplate = StrTemplate.compile(template);
+            TEMPLATE_CACHE.put(template, strTemplate);
         }
-        // append the characters following the last {} pair.
-        //加入最后一个占位符后所有的字符
-        sbuf.append(strPattern, handledPosition, strPattern.length());
-
-        return sbuf.toString();
+        return strTemplate;
     }
 
     /**
@@ -1039,8 +1021,7 @@ public final class StringUtil {
      */
     public final static int ChineseLength(String str) {
         final String regex = "[\u4E00-\u9FA5]+";
-        Pattern p = Pattern.compile(regex);
-        Matcher m = p.matcher(str);
+        Matcher m = RegUtil.compile(regex).matcher(str);
         int i = 0;
         while (m.find()) {
             String temp = m.group(0);
@@ -1055,30 +1036,24 @@ public final class StringUtil {
      * @return 16进制字符串
      */
     public static String parseByte2HexStr(byte[] buf) {
-        StringBuffer sb = new StringBuffer();
-        for (int i = 0; i < buf.length; i++) {
-            String hex = Integer.toHexString(buf[i] & 0xFF);
-            if (hex.length() == 1) {
-                hex = '0' + hex;
-            }
-            sb.append(hex.toUpperCase());
-        }
-        return sb.toString();
+        return HexUtil.encodeHexStr(buf, false);
     }
 
-    /**将16进制转换为二进制
+    /**将16进制转换为二进制<br>
+     * 长度为奇数时忽略最后一个字符，这一点与{@link HexUtil#decodeHex(CharSequence)}不同
      * @param hexStr 16进制字符串
-     * @return 2进制byte[]
+     * @return 2进制byte[]，空字符串返回null
+     * @throws NumberFormatException 包含非十六进制字符
      */
     public static byte[] parseHexStr2Byte(String hexStr) {
         if (hexStr.length() < 1) {
             return null;
         }
-        byte[] result = new byte[hexStr.length()/2];
-        for (int i = 0;i< hexStr.length()/2; i++) {
-            int high = Integer.parseInt(hexStr.substring(i*2, i*2+1), 16);
-            int low = Integer.parseInt(hexStr.substring(i*2+1, i*2+2), 16);
-            result[i] = (byte) (high * 16 + low);
+        byte[] result = new byte[hexStr.length() / 2];
+        try {
+            HexUtil.decodeHex(hexStr, 0, result.length * 2, result, 0);
+        } catch (IllegalArgumentException e) {
+            throw new NumberFormatException(e.getMessage());
         }
         return result;
     }
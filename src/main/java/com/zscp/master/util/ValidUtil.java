@@ -1,9 +1,17 @@
 package com.zscp.master.util;
 
+import java.lang.reflect.Array;
 import java.net.MalformedURLException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -67,6 +75,20 @@ public final class ValidUtil {
      */
     public final static Pattern UUID_SIMPLE = Pattern.compile("^[0-9a-z]{32}$");
 
+    /**
+     * 身份证号码前17位的加权因子
+     */
+    private final static int[] CITIZEN_ID_WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+    /**
+     * 身份证号码加权和模11对应的校验码
+     */
+    private final static String CITIZEN_ID_CHECK_CODES = "10X98765432";
+
+    /**
+     * 批量校验时每个子任务处理的行数，为64的整数倍，保证子任务写入的BitSet字互不重叠
+     */
+    private final static int BATCH_SIZE = 8192;
+
     /**
      * 正则表达式匹配中文
      */
@@ -85,14 +107,7 @@ public final class ValidUtil {
      * @return 是否符合
      */
     public final static boolean isDate(String date, String format) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat(format);
-            sdf.parse(date);
-            return true;
-        } catch (ParseException e) {
-            e.printStackTrace();
-        }
-        return false;
+        return null != DateUtils.parse(date, format);
     }
 
 
@@ -149,7 +164,7 @@ public final class ValidUtil {
             //正则不存在则为全匹配
             return true;
         }
-        return Pattern.matches(regex, value);
+        return RegUtil.compile(regex).matcher(value).matches();
     }
 
 
@@ -241,7 +256,7 @@ public final class ValidUtil {
      * @return 是否为邮政编码（中国）
      */
     public static boolean isZipCode(String value) {
-        return isMatchRegex(ZIP_CODE, value);
+        return null != value && value.length() == 6 && isDigits(value, 0, 6);
     }
 
 
@@ -266,7 +281,7 @@ public final class ValidUtil {
      * @return 是否为手机号码（中国）
      */
     public static boolean isMobile(String value) {
-        return isMatchRegex(MOBILE, value);
+        return null != value && value.length() == 11 && value.charAt(0) == '1' && isDigits(value, 1, 11);
     }
 
     /**
@@ -276,18 +291,74 @@ public final class ValidUtil {
      * @return 是否正确
      */
     public static boolean isPhoneNum(String str) {
-        return str.matches(REG_FIXED_TELEPHONE);
+        if (null == str) {
+            return false;
+        }
+        return RegUtil.compile(REG_FIXED_TELEPHONE).matcher(str).matches();
     }
 
     /**
      * 验证是否为身份证号码（18位中国）<br>
-     * 出生日期只支持到到2999年
+     * 出生日期只支持到到2999年，与{@link #CITIZEN_ID}的规则一致，不校验最后一位校验码
      *
      * @param value 值
      * @return 是否为身份证号码（18位中国）
      */
     public static boolean isCitizenId(String value) {
-        return isMatchRegex(CITIZEN_ID, value);
+        if (null == value || value.length() != 18) {
+            return false;
+        }
+        final char first = value.charAt(0);
+        final char century = value.charAt(6);
+        if (first < '1' || first > '9' || (century != '1' && century != '2')) {
+            return false;
+        }
+        if (false == (isDigits(value, 1, 6) && isDigits(value, 7, 12) && isDigits(value, 13, 17))) {
+            return false;
+        }
+        // 月份为0x或10-12
+        final char month = value.charAt(10);
+        final char monthUnit = value.charAt(11);
+        if (month != '0' && (month != '1' || monthUnit > '2')) {
+            return false;
+        }
+        // 日期为[0|1|2]x或30、31，字符集中的 | 也会被接受
+        final char day = value.charAt(12);
+        final char dayUnit = value.charAt(13);
+        if (day == '3') {
+            if (dayUnit > '1') {
+                return false;
+            }
+        } else if (day != '0' && day != '1' && day != '2' && day != '|') {
+            return false;
+        }
+        final char last = value.charAt(17);
+        return (last >= '0' && last <= '9') || last == 'X' || last == 'x';
+    }
+
+    /**
+     * 验证是否为身份证号码（18位中国）
+     *
+     * @param value    值
+     * @param checkSum 是否校验最后一位校验码（GB 11643，前17位加权求和模11）
+     * @return 是否为身份证号码（18位中国）
+     */
+    public static boolean isCitizenId(String value, boolean checkSum) {
+        if (false == isCitizenId(value)) {
+            return false;
+        }
+        if (false == checkSum) {
+            return true;
+        }
+        int sum = 0;
+        for (int i = 0; i < 17; i++) {
+            final int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            sum += digit * CITIZEN_ID_WEIGHTS[i];
+        }
+        return CITIZEN_ID_CHECK_CODES.charAt(sum % 11) == Character.toUpperCase(value.charAt(17));
     }
 
 
@@ -330,7 +401,37 @@ public final class ValidUtil {
      * @return 是否为IPV4地址
      */
     public static boolean isIpv4(String value) {
-        return isMatchRegex(IPV4, value);
+        if (null == value) {
+            return false;
+        }
+        final int length = value.length();
+        int start = 0;
+        for (int part = 0; part < 4; part++) {
+            int end = start;
+            while (end < length && value.charAt(end) >= '0' && value.charAt(end) <= '9') {
+                end++;
+            }
+            // 每段为1-2位数字，或100-255
+            final int digits = end - start;
+            if (digits == 0 || digits > 3) {
+                return false;
+            }
+            if (digits == 3) {
+                final int number = (value.charAt(start) - '0') * 100 + (value.charAt(start + 1) - '0') * 10 + (value.charAt(start + 2) - '0');
+                if (number < 100 || number > 255) {
+                    return false;
+                }
+            }
+            if (part < 3) {
+                if (end == length || value.charAt(end) != '.') {
+                    return false;
+                }
+                start = end + 1;
+            } else if (end != length) {
+                return false;
+            }
+        }
+        return true;
     }
 
 
@@ -380,7 +481,15 @@ public final class ValidUtil {
      * @return 是否为UUID
      */
     public static boolean isUUID(String value) {
-        return isMatchRegex(UUID, value) || isMatchRegex(UUID_SIMPLE, value);
+        if (null == value) {
+            return false;
+        }
+        if (value.length() == 32) {
+            return isLowerAlphanumeric(value, 0, 32);
+        }
+        return value.length() == 36 && value.charAt(8) == '-' && value.charAt(13) == '-' && value.charAt(18) == '-' && value.charAt(23) == '-'
+                && isLowerAlphanumeric(value, 0, 8) && isLowerAlphanumeric(value, 9, 13) && isLowerAlphanumeric(value, 14, 18)
+                && isLowerAlphanumeric(value, 19, 23) && isLowerAlphanumeric(value, 24, 36);
     }
 
     /**
@@ -393,7 +502,7 @@ public final class ValidUtil {
         boolean return_value = false;
         if (src != null && src.length() > 0) {
             final String regex = "^[a-z|A-Z]+$";
-            Matcher m = Pattern.compile(regex).matcher(src);
+            Matcher m = RegUtil.compile(regex).matcher(src);
             if (m.find()) {
                 return_value = true;
             }
@@ -411,7 +520,7 @@ public final class ValidUtil {
         boolean return_value = false;
         if (src != null && src.length() > 0) {
             final String regex = "^[0-9\\-\\.]+$";
-            Matcher m = Pattern.compile(regex).matcher(src);
+            Matcher m = RegUtil.compile(regex).matcher(src);
             if (m.find()) {
                 return_value = true;
             }
@@ -420,16 +529,59 @@ public final class ValidUtil {
     }
 
     /**
-     * 字符串是否为空
+     * 对象是否为空<br>
+     * 字符序列只包含空白字符（不大于空格的字符，与String.trim一致）时为空，集合、Map、数组长度为0时为空，
+     * 其它对象按toString的结果判断
      *
-     * @param s 被检测的字符串
+     * @param s 被检测的对象
      * @return 是否为空
      */
     public static boolean isEmpty(Object s) {
-        if (s == null || String.valueOf(s).trim().length() == 0) {
+        if (s == null) {
             return true;
         }
-        return false;
+        // 先判断具体类，类的类型检查比接口快
+        if (s instanceof String) {
+            return isEmpty((CharSequence) s);
+        }
+        if (s instanceof Number || s instanceof Boolean) {
+            return false;
+        }
+        if (s instanceof Character) {
+            return (Character) s <= ' ';
+        }
+        if (s instanceof CharSequence) {
+            return isEmpty((CharSequence) s);
+        }
+        if (s instanceof Collection) {
+            return ((Collection<?>) s).isEmpty();
+        }
+        if (s instanceof Map) {
+            return ((Map<?, ?>) s).isEmpty();
+        }
+        if (s.getClass().isArray()) {
+            return Array.getLength(s) == 0;
+        }
+        return isEmpty((CharSequence) s.toString());
+    }
+
+    /**
+     * 字符串是否为空，只包含空白字符（不大于空格的字符，与String.trim一致）也视为空<br>
+     * 直接扫描原字符串，不创建新的字符串
+     *
+     * @param s 被检测的字符串
+     * @return 是否为空
+     */
+    public static boolean isEmpty(CharSequence s) {
+        if (s == null) {
+            return true;
+        }
+        for (int i = 0, length = s.length(); i < length; i++) {
+            if (s.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -473,6 +625,16 @@ public final class ValidUtil {
         return false == isEmpty(o);
     }
 
+    /**
+     * 字符串是否为非空
+     *
+     * @param s 被检测的字符串
+     * @return 是否为非空
+     */
+    public static boolean isNotEmpty(CharSequence s) {
+        return false == isEmpty(s);
+    }
+
     /**
      * 是否为基本类型，包括包装类型和非包装类型
      *
@@ -522,6 +684,72 @@ public final class ValidUtil {
 
     }
 
+    /**
+     * 批量校验，在当前线程执行
+     *
+     * @param values    待校验的值
+     * @param validator 校验方法，如 ValidUtil::isMobile
+     * @return 校验不通过的行号
+     */
+    public static BitSet validate(String[] values, Predicate<String> validator) {
+        return validate(Arrays.asList(values), validator, null);
+    }
+
+    /**
+     * 批量校验，数据量较大时拆分到线程池中并行执行
+     *
+     * @param values    待校验的值
+     * @param validator 校验方法，如 ValidUtil::isMobile，并行执行时必须是线程安全的
+     * @param pool      线程池，null表示在当前线程执行
+     * @return 校验不通过的行号
+     */
+    public static BitSet validate(String[] values, Predicate<String> validator, ForkJoinPool pool) {
+        return validate(Arrays.asList(values), validator, pool);
+    }
+
+    /**
+     * 批量校验，在当前线程执行
+     *
+     * @param values    待校验的值
+     * @param validator 校验方法，如 ValidUtil::isMobile
+     * @return 校验不通过的行号
+     */
+    public static BitSet validate(List<String> values, Predicate<String> validator) {
+        return validate(values, validator, null);
+    }
+
+    /**
+     * 批量校验，数据量较大时拆分到线程池中并行执行<br>
+     * 结果中第i位为1表示第i行校验不通过
+     *
+     * @param values    待校验的值
+     * @param validator 校验方法，如 ValidUtil::isMobile，并行执行时必须是线程安全的
+     * @param pool      线程池，null表示在当前线程执行
+     * @return 校验不通过的行号
+     */
+    public static BitSet validate(List<String> values, Predicate<String> validator, ForkJoinPool pool) {
+        final List<String> list = values instanceof RandomAccess ? values : new ArrayList<String>(values);
+        final int size = list.size();
+        final long[] words = new long[(size + 63) >>> 6];
+        if (null == pool || size <= BATCH_SIZE) {
+            validate(list, validator, words, 0, size);
+        } else {
+            pool.invoke(new ValidateTask(list, validator, words, 0, size));
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * 校验指定范围内的值，不通过的行在words中对应的位置1
+     */
+    private static void validate(List<String> values, Predicate<String> validator, long[] words, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (false == validator.test(values.get(i))) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
     /**
      * 集合是否为空
      *
@@ -531,4 +759,62 @@ public final class ValidUtil {
     public static boolean isEmptyCollection(Collection<?> collection) {
         return collection == null || collection.isEmpty();
     }
+
+    /**
+     * 指定范围内是否都是数字（0-9）
+     */
+    private static boolean isDigits(String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 指定范围内是否都是小写字母或数字
+     */
+    private static boolean isLowerAlphanumeric(String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'z')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 批量校验的子任务，按64行对齐拆分，各子任务写入words的不同元素，不需要合并结果
+     */
+    private static class ValidateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> values;
+        private final Predicate<String> validator;
+        private final long[] words;
+        private final int start;
+        private final int end;
+
+        private ValidateTask(List<String> values, Predicate<String> validator, long[] words, int start, int end) {
+            this.values = values;
+            this.validator = validator;
+            this.words = words;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= BATCH_SIZE) {
+                validate(values, validator, words, start, end);
+                return;
+            }
+            final int middle = start + (((end - start) >>> 1) & ~63);
+            invokeAll(new ValidateTask(values, validator, words, start, middle),
+                    new ValidateTask(values, validator, words, middle, end));
+        }
+    }
 }
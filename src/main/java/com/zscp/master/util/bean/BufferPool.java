@@ -0,0 +1,251 @@
+package com.zscp.master.util.bean;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按大小分级的缓冲池，复用拷贝、读取时使用的byte数组和直接内存缓冲，避免频繁申请大块内存<br>
+ * 缓冲大小按2的幂分级（{@link #MIN_SIZE}到{@link #MAX_SIZE}），申请时向上取整到所在级别，超过最大级别的缓冲不缓存<br>
+ * 每个线程为较小的级别各保留一个缓冲，无需同步；其余缓冲归还到共享队列，共享队列保留的总字节数不超过指定上限<br>
+ * 缓冲归还后不能再使用，也不能重复归还
+ */
+public class BufferPool {
+
+    /**
+     * 最小级别的缓冲大小
+     */
+    public static final int MIN_SIZE = 4 * 1024;
+    /**
+     * 最大级别的缓冲大小
+     */
+    public static final int MAX_SIZE = 16 * 1024 * 1024;
+    /**
+     * 线程本地缓存的最大缓冲大小
+     */
+    private static final int THREAD_LOCAL_MAX_SIZE = 64 * 1024;
+    private static final int MIN_SHIFT = Integer.numberOfTrailingZeros(MIN_SIZE);
+    private static final int CLASS_COUNT = Integer.numberOfTrailingZeros(MAX_SIZE) - MIN_SHIFT + 1;
+    private static final int THREAD_LOCAL_CLASS_COUNT = Integer.numberOfTrailingZeros(THREAD_LOCAL_MAX_SIZE) - MIN_SHIFT + 1;
+
+    /**
+     * 默认的缓冲池，共享队列最多保留64MB
+     */
+    public static final BufferPool DEFAULT = new BufferPool(64L * 1024 * 1024);
+
+    /**
+     * 共享队列最多保留的字节数
+     */
+    private final long maxRetained;
+    /**
+     * 共享队列当前保留的字节数
+     */
+    private final AtomicLong retained = new AtomicLong();
+    private final List<Queue<byte[]>> heapQueues;
+    private final List<Queue<ByteBuffer>> directQueues;
+    private final ThreadLocal<LocalCache> localCache = ThreadLocal.withInitial(LocalCache::new);
+
+    /**
+     * @param maxRetained 共享队列最多保留的字节数（不含各线程本地保留的缓冲）
+     */
+    public BufferPool(long maxRetained) {
+        if (maxRetained < 0) {
+            throw new IllegalArgumentException("Max retained bytes must not be negative!");
+        }
+        this.maxRetained = maxRetained;
+        this.heapQueues = new ArrayList<Queue<byte[]>>(CLASS_COUNT);
+        this.directQueues = new ArrayList<Queue<ByteBuffer>>(CLASS_COUNT);
+        for (int i = 0; i < CLASS_COUNT; i++) {
+            heapQueues.add(new ConcurrentLinkedQueue<byte[]>());
+            directQueues.add(new ConcurrentLinkedQueue<ByteBuffer>());
+        }
+    }
+
+    /**
+     * 获取byte数组，长度为所在级别的大小，不小于size，内容未清零
+     *
+     * @param size 最小长度
+     * @return byte数组
+     */
+    public byte[] acquireBytes(int size) {
+        final int index = classIndex(size);
+        if (index < 0) {
+            return new byte[size];
+        }
+        if (index < THREAD_LOCAL_CLASS_COUNT) {
+            final LocalCache cache = localCache.get();
+            final byte[] cached = cache.heap[index];
+            if (null != cached) {
+                cache.heap[index] = null;
+                return cached;
+            }
+        }
+        final byte[] pooled = heapQueues.get(index).poll();
+        if (null != pooled) {
+            retained.addAndGet(-pooled.length);
+            return pooled;
+        }
+        return new byte[MIN_SIZE << index];
+    }
+
+    /**
+     * 获取直接内存缓冲，容量为所在级别的大小，不小于size，已清空（position为0，limit为容量）
+     *
+     * @param size 最小容量
+     * @return 直接内存缓冲
+     */
+    public ByteBuffer acquireDirect(int size) {
+        final int index = classIndex(size);
+        if (index < 0) {
+            return ByteBuffer.allocateDirect(size);
+        }
+        ByteBuffer buffer = null;
+        if (index < THREAD_LOCAL_CLASS_COUNT) {
+            final LocalCache cache = localCache.get();
+            buffer = cache.direct[index];
+            cache.direct[index] = null;
+        }
+        if (null == buffer) {
+            buffer = directQueues.get(index).poll();
+            if (null != buffer) {
+                retained.addAndGet(-buffer.capacity());
+            }
+        }
+        if (null == buffer) {
+            return ByteBuffer.allocateDirect(MIN_SIZE << index);
+        }
+        buffer.clear();
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * 获取堆内存缓冲，使用池中的byte数组，已清空（position为0，limit为容量）
+     *
+     * @param size 最小容量
+     * @return 堆内存缓冲
+     */
+    public ByteBuffer acquireHeap(int size) {
+        return ByteBuffer.wrap(acquireBytes(size));
+    }
+
+    /**
+     * 归还byte数组，长度不是级别大小的数组直接丢弃
+     *
+     * @param buffer byte数组，可以为null
+     */
+    public void release(byte[] buffer) {
+        if (null == buffer) {
+            return;
+        }
+        final int index = exactClassIndex(buffer.length);
+        if (index < 0) {
+            return;
+        }
+        if (index < THREAD_LOCAL_CLASS_COUNT) {
+            final LocalCache cache = localCache.get();
+            if (null == cache.heap[index]) {
+                cache.heap[index] = buffer;
+                return;
+            }
+        }
+        if (reserve(buffer.length)) {
+            heapQueues.get(index).offer(buffer);
+        }
+    }
+
+    /**
+     * 归还缓冲，直接内存缓冲和{@link #acquireHeap(int)}获取的堆内存缓冲分别归还到对应的池中，其它缓冲直接丢弃
+     *
+     * @param buffer 缓冲，可以为null
+     */
+    public void release(ByteBuffer buffer) {
+        if (null == buffer) {
+            return;
+        }
+        if (false == buffer.isDirect()) {
+            if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.array().length == buffer.capacity()) {
+                release(buffer.array());
+            }
+            return;
+        }
+        final int index = exactClassIndex(buffer.capacity());
+        if (index < 0 || buffer.isReadOnly()) {
+            return;
+        }
+        if (index < THREAD_LOCAL_CLASS_COUNT) {
+            final LocalCache cache = localCache.get();
+            if (null == cache.direct[index]) {
+                cache.direct[index] = buffer;
+                return;
+            }
+        }
+        if (reserve(buffer.capacity())) {
+            directQueues.get(index).offer(buffer);
+        }
+    }
+
+    /**
+     * @return 共享队列当前保留的字节数
+     */
+    public long getRetainedBytes() {
+        return retained.get();
+    }
+
+    /**
+     * 在上限内占用共享队列的容量
+     *
+     * @param size 字节数
+     * @return 是否占用成功
+     */
+    private boolean reserve(int size) {
+        while (true) {
+            final long current = retained.get();
+            if (current + size > maxRetained) {
+                return false;
+            }
+            if (retained.compareAndSet(current, current + size)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 容纳size所需的级别
+     *
+     * @return 级别，超过最大级别时为-1
+     */
+    private static int classIndex(int size) {
+        if (size <= MIN_SIZE) {
+            return 0;
+        }
+        if (size > MAX_SIZE) {
+            return -1;
+        }
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * 大小恰好为某一级别时的级别
+     *
+     * @return 级别，不是级别大小时为-1
+     */
+    private static int exactClassIndex(int size) {
+        if (size < MIN_SIZE || size > MAX_SIZE || Integer.bitCount(size) != 1) {
+            return -1;
+        }
+        return Integer.numberOfTrailingZeros(size) - MIN_SHIFT;
+    }
+
+    /**
+     * 线程本地缓存，每个较小的级别各保留一个缓冲
+     */
+    private static class LocalCache {
+        private final byte[][] heap = new byte[THREAD_LOCAL_CLASS_COUNT][];
+        private final ByteBuffer[] direct = new ByteBuffer[THREAD_LOCAL_CLASS_COUNT];
+    }
+}
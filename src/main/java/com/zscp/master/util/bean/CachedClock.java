@@ -0,0 +1,82 @@
+package com.zscp.master.util.bean;
+
+import java.util.function.LongFunction;
+
+/**
+ * 缓存格式化结果的时钟<br>
+ * 时间按精度划分为若干刻度，同一刻度内只格式化一次，之后直接返回缓存的字符串，适合日志等高频获取当前时间字符串的场景<br>
+ * 精度不大于格式中最小的时间单位时（如精度1秒、格式到秒），返回值与每次重新格式化完全一致<br>
+ * 线程安全，并发刷新时可能重复格式化，但不会返回其他刻度的结果
+ */
+public class CachedClock {
+
+    /**
+     * 精度，单位毫秒
+     */
+    private final long resolution;
+    /**
+     * 格式化方法，参数为时间戳
+     */
+    private final LongFunction<String> formatter;
+    /**
+     * 当前刻度
+     */
+    private volatile Tick tick = new Tick(Long.MIN_VALUE, null);
+
+    /**
+     * @param resolution 精度，单位毫秒
+     * @param formatter  格式化方法，参数为时间戳
+     */
+    public CachedClock(long resolution, LongFunction<String> formatter) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("Resolution must be greater than 0!");
+        }
+        this.resolution = resolution;
+        this.formatter = formatter;
+    }
+
+    /**
+     * 获取当前时间的字符串
+     *
+     * @return 当前时间字符串
+     */
+    public String now() {
+        return format(System.currentTimeMillis());
+    }
+
+    /**
+     * 获取时间戳对应的字符串，与上次调用处于同一刻度时返回缓存的结果
+     *
+     * @param millis 时间戳
+     * @return 时间字符串
+     */
+    public String format(long millis) {
+        final long index = Math.floorDiv(millis, resolution);
+        Tick current = tick;
+        if (current.index != index) {
+            current = new Tick(index, formatter.apply(millis));
+            tick = current;
+        }
+        return current.text;
+    }
+
+    /**
+     * @return 精度，单位毫秒
+     */
+    public long getResolution() {
+        return resolution;
+    }
+
+    /**
+     * 刻度及其格式化结果
+     */
+    private static class Tick {
+        private final long index;
+        private final String text;
+
+        private Tick(long index, String text) {
+            this.index = index;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.zscp.master.util.bean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分块摘要，文件按固定大小分块，每块单独计算摘要，再按Merkle树两两合并得到根摘要<br>
+ * 比较两个分块摘要即可定位内容变化的块，只需校验或同步这些区域<br>
+ * 摘要的格式（H为摘要算法，||表示拼接）：
+ * <ul>
+ * <li>块：H(0x00 || 块内容)，空文件视为一个空块</li>
+ * <li>节点：H(0x01 || 左 || 右)，每层落单的摘要直接进入上一层</li>
+ * <li>根：H(0x02 || 分块大小 || 文件大小 || 树顶的摘要)，分块大小和文件大小为8字节大端序</li>
+ * </ul>
+ * 块、节点和根使用不同的前缀，并且根包含分块方式，不同分块方式或不同层级的摘要不会相同
+ */
+public class ChunkDigest {
+
+    /**
+     * 默认分块大小
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+    /**
+     * 块摘要的前缀
+     */
+    public static final byte LEAF_PREFIX = 0x00;
+    /**
+     * 节点摘要的前缀
+     */
+    public static final byte NODE_PREFIX = 0x01;
+    /**
+     * 根摘要的前缀
+     */
+    public static final byte ROOT_PREFIX = 0x02;
+
+    private final String algorithm;
+    private final long chunkSize;
+    private final long length;
+    private final String[] chunkHashes;
+    private final String root;
+
+    /**
+     * @param algorithm   摘要算法名称
+     * @param chunkSize   分块大小
+     * @param length      文件大小
+     * @param chunkHashes 各块的摘要（十六进制），即H(0x00 || 块内容)
+     * @param root        根摘要（十六进制）
+     */
+    public ChunkDigest(String algorithm, long chunkSize, long length, String[] chunkHashes, String root) {
+        this.algorithm = algorithm;
+        this.chunkSize = chunkSize;
+        this.length = length;
+        this.chunkHashes = chunkHashes.clone();
+        this.root = root;
+    }
+
+    /**
+     * @return 摘要算法名称
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return 分块大小
+     */
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @return 文件大小
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return 块数
+     */
+    public int getChunkCount() {
+        return chunkHashes.length;
+    }
+
+    /**
+     * @param index 块序号
+     * @return 块的摘要（十六进制），即H(0x00 || 块内容)
+     */
+    public String getChunkHash(int index) {
+        return chunkHashes[index];
+    }
+
+    /**
+     * @param index 块序号
+     * @return 块在文件中的起始位置
+     */
+    public long getChunkOffset(int index) {
+        return index * chunkSize;
+    }
+
+    /**
+     * 根摘要，包含分块大小和文件大小，格式见类说明
+     *
+     * @return 根摘要（十六进制）
+     */
+    public String getRoot() {
+        return root;
+    }
+
+    /**
+     * 找出与另一个分块摘要内容不同的块，只存在于其中一方的块也视为不同
+     *
+     * @param other 另一个分块摘要，算法和分块大小必须相同
+     * @return 内容不同的块序号，按升序排列
+     */
+    public List<Integer> diff(ChunkDigest other) {
+        if (false == algorithm.equalsIgnoreCase(other.algorithm) || chunkSize != other.chunkSize) {
+            throw new IllegalArgumentException("Chunk digests must use the same algorithm and chunk size!");
+        }
+        final List<Integer> result = new ArrayList<Integer>();
+        final int count = Math.max(chunkHashes.length, other.chunkHashes.length);
+        for (int i = 0; i < count; i++) {
+            if (i >= chunkHashes.length || i >= other.chunkHashes.length || false == chunkHashes[i].equals(other.chunkHashes[i])) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + ":" + root;
+    }
+}
@@ -0,0 +1,570 @@
+package com.zscp.master.util.bean;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 定长日期格式的快速编解码<br>
+ * 只支持由 yyyy、yy、MM、dd、HH、mm、ss、SSS 和非字母分隔符组成的格式，如 yyyy-MM-dd HH:mm:ss、yyyy-MM-dd、yyMMddHHmmss<br>
+ * 解析和格式化直接按位计算数字，不创建Calendar、Date等中间对象；固定偏移的时区直接计算，其它时区按时区分别缓存最近使用的偏移区间，同一区间内不再查询时区规则<br>
+ * 对象不可变，可在多线程间共享
+ */
+public final class FastDateCodec {
+
+    /**
+     * 无法使用快速解析时的返回值，调用方应退回通用解析
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final byte LITERAL = 0;
+    private static final byte YEAR = 1;
+    private static final byte YEAR_2 = 2;
+    private static final byte MONTH = 3;
+    private static final byte DAY = 4;
+    private static final byte HOUR = 5;
+    private static final byte MINUTE = 6;
+    private static final byte SECOND = 7;
+    private static final byte MILLI = 8;
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+    /**
+     * 0000-03-01 到 1970-01-01 的天数
+     */
+    private static final long DAYS_0000_TO_1970 = 719468L;
+
+    /**
+     * 各时区最近一次使用的本地时间到UTC的偏移区间
+     */
+    private static final ConcurrentMap<ZoneId, OffsetRange> LOCAL_RANGES = new ConcurrentHashMap<ZoneId, OffsetRange>();
+    /**
+     * 各时区最近一次使用的UTC到本地时间的偏移区间
+     */
+    private static final ConcurrentMap<ZoneId, OffsetRange> INSTANT_RANGES = new ConcurrentHashMap<ZoneId, OffsetRange>();
+    /**
+     * 查询时区规则计算偏移区间的次数
+     */
+    private static final LongAdder RANGE_LOOKUPS = new LongAdder();
+
+    /**
+     * 日期格式
+     */
+    private final String pattern;
+    /**
+     * 各字段的类型
+     */
+    private final byte[] fields;
+    /**
+     * 各字段在字符串中的起始位置
+     */
+    private final int[] positions;
+    /**
+     * 各字段的位数
+     */
+    private final int[] widths;
+    /**
+     * 分隔符在字符串中的位置
+     */
+    private final int[] literals;
+
+    private FastDateCodec(String pattern, byte[] fields, int[] positions, int[] widths, int[] literals) {
+        this.pattern = pattern;
+        this.fields = fields;
+        this.positions = positions;
+        this.widths = widths;
+        this.literals = literals;
+    }
+
+    /**
+     * 创建定长日期格式的编解码器
+     *
+     * @param pattern 日期格式
+     * @return 编解码器，格式不是定长数字格式时返回null
+     */
+    public static FastDateCodec of(String pattern) {
+        if (null == pattern || pattern.isEmpty()) {
+            return null;
+        }
+        final int length = pattern.length();
+        final byte[] fields = new byte[length];
+        final int[] positions = new int[length];
+        final int[] widths = new int[length];
+        final int[] literals = new int[length];
+        int fieldCount = 0;
+        int literalCount = 0;
+        int i = 0;
+        while (i < length) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                return null;
+            }
+            if (false == ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                literals[literalCount++] = i++;
+                continue;
+            }
+            int end = i;
+            while (end < length && pattern.charAt(end) == c) {
+                end++;
+            }
+            final int count = end - i;
+            byte field;
+            switch (c) {
+                case 'y':
+                    field = count == 4 ? YEAR : (count == 2 ? YEAR_2 : LITERAL);
+                    break;
+                case 'M':
+                    field = count == 2 ? MONTH : LITERAL;
+                    break;
+                case 'd':
+                    field = count == 2 ? DAY : LITERAL;
+                    break;
+                case 'H':
+                    field = count == 2 ? HOUR : LITERAL;
+                    break;
+                case 'm':
+                    field = count == 2 ? MINUTE : LITERAL;
+                    break;
+                case 's':
+                    field = count == 2 ? SECOND : LITERAL;
+                    break;
+                case 'S':
+                    field = count == 3 ? MILLI : LITERAL;
+                    break;
+                default:
+                    field = LITERAL;
+            }
+            if (field == LITERAL) {
+                return null;
+            }
+            fields[fieldCount] = field;
+            positions[fieldCount] = i;
+            widths[fieldCount] = count;
+            fieldCount++;
+            i = end;
+        }
+        return new FastDateCodec(pattern, Arrays.copyOf(fields, fieldCount), Arrays.copyOf(positions, fieldCount),
+                Arrays.copyOf(widths, fieldCount), Arrays.copyOf(literals, literalCount));
+    }
+
+    /**
+     * 解析日期字符串为时间戳，使用系统默认时区
+     *
+     * @param str 日期字符串
+     * @return 时间戳，字符串与格式不完全匹配或字段超出范围时返回{@link #INVALID}
+     */
+    public long parse(CharSequence str) {
+        return parse(str, ZoneId.systemDefault());
+    }
+
+    /**
+     * 解析日期字符串为时间戳<br>
+     * 字符串末尾允许有多余的非数字内容，与SimpleDateFormat一致会被忽略
+     *
+     * @param str  日期字符串
+     * @param zone 时区
+     * @return 时间戳，字符串与格式不完全匹配或字段超出范围时返回{@link #INVALID}
+     */
+    public long parse(CharSequence str, ZoneId zone) {
+        final int length = pattern.length();
+        if (null == str || str.length() < length) {
+            return INVALID;
+        }
+        if (str.length() > length) {
+            char next = str.charAt(length);
+            if (next >= '0' && next <= '9') {
+                return INVALID;
+            }
+        }
+        for (int position : literals) {
+            if (str.charAt(position) != pattern.charAt(position)) {
+                return INVALID;
+            }
+        }
+
+        int year = 1970, month = 1, day = 1, hour = 0, minute = 0, second = 0, milli = 0, twoDigitYear = -1;
+        for (int i = 0; i < fields.length; i++) {
+            final int value = parseDigits(str, positions[i], widths[i]);
+            if (value < 0) {
+                return INVALID;
+            }
+            switch (fields[i]) {
+                case YEAR:
+                    year = value;
+                    break;
+                case YEAR_2:
+                    twoDigitYear = value;
+                    break;
+                case MONTH:
+                    month = value;
+                    break;
+                case DAY:
+                    day = value;
+                    break;
+                case HOUR:
+                    hour = value;
+                    break;
+                case MINUTE:
+                    minute = value;
+                    break;
+                case SECOND:
+                    second = value;
+                    break;
+                default:
+                    milli = value;
+            }
+        }
+        if (month < 1 || month > 12 || day < 1 || day > 31 || hour > 23 || minute > 59 || second > 59) {
+            return INVALID;
+        }
+        if (twoDigitYear >= 0) {
+            year = resolveTwoDigitYear(twoDigitYear, month, day, ((hour * 60 + minute) * 60 + second) * 1000 + milli, zone);
+        }
+        if (day > lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+
+        final long localMillis = daysFromCivil(year, month, day) * MILLIS_PER_DAY
+                + ((hour * 60 + minute) * 60 + second) * 1000L + milli;
+        return toEpochMillis(localMillis, zone);
+    }
+
+    /**
+     * 格式化时间戳，使用系统默认时区
+     *
+     * @param millis 时间戳
+     * @return 日期字符串，年份超出0-9999时返回null
+     */
+    public String format(long millis) {
+        return format(millis, ZoneId.systemDefault());
+    }
+
+    /**
+     * 格式化时间戳
+     *
+     * @param millis 时间戳
+     * @param zone   时区
+     * @return 日期字符串，年份超出0-9999时返回null
+     */
+    public String format(long millis, ZoneId zone) {
+        final char[] buf = new char[pattern.length()];
+        if (false == formatLocal(toLocalMillis(millis, zone), buf, 0)) {
+            return null;
+        }
+        return new String(buf);
+    }
+
+    /**
+     * 将本地时间（以UTC计算的毫秒数）格式化到字符数组中
+     *
+     * @param localMillis 本地时间毫秒数
+     * @param buf         字符数组
+     * @param offset      写入的起始位置
+     * @return 是否成功，年份超出0-9999时返回false
+     */
+    public boolean formatLocal(long localMillis, char[] buf, int offset) {
+        final long epochDay = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+        final int millisOfDay = (int) Math.floorMod(localMillis, MILLIS_PER_DAY);
+
+        final long date = civilFromDays(epochDay);
+        final long year = date >> 9;
+        final int month = (int) (date >> 5) & 0x0F;
+        final int day = (int) date & 0x1F;
+        if (year < 0 || year > 9999) {
+            return false;
+        }
+
+        for (int position : literals) {
+            buf[offset + position] = pattern.charAt(position);
+        }
+        for (int i = 0; i < fields.length; i++) {
+            switch (fields[i]) {
+                case YEAR:
+                    writeDigits(buf, offset + positions[i], (int) year, widths[i]);
+                    break;
+                case YEAR_2:
+                    writeDigits(buf, offset + positions[i], (int) (year % 100), widths[i]);
+                    break;
+                case MONTH:
+                    writeDigits(buf, offset + positions[i], month, widths[i]);
+                    break;
+                case DAY:
+                    writeDigits(buf, offset + positions[i], day, widths[i]);
+                    break;
+                default:
+            }
+        }
+        writeTime(millisOfDay, buf, offset);
+        return true;
+    }
+
+    /**
+     * 连续格式化时使用，与上一次格式化的时间处于同一天时只重写时间部分，日期部分沿用字符数组中已有的内容
+     *
+     * @param localMillis         本地时间毫秒数
+     * @param previousLocalMillis 上一次成功格式化到同一字符数组的本地时间毫秒数，没有时传入{@link #INVALID}
+     * @param buf                 字符数组
+     * @param offset              写入的起始位置
+     * @return 是否成功，年份超出0-9999时返回false
+     */
+    public boolean formatLocal(long localMillis, long previousLocalMillis, char[] buf, int offset) {
+        final long epochDay = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+        if (previousLocalMillis == INVALID || epochDay != Math.floorDiv(previousLocalMillis, MILLIS_PER_DAY)) {
+            return formatLocal(localMillis, buf, offset);
+        }
+        writeTime((int) (localMillis - epochDay * MILLIS_PER_DAY), buf, offset);
+        return true;
+    }
+
+    /**
+     * @return 格式化后字符串的长度
+     */
+    public int length() {
+        return pattern.length();
+    }
+
+    /**
+     * @return 日期格式
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    // ------------------------------------------------------------------------ 时区偏移
+
+    /**
+     * 将时间戳转换为本地时间毫秒数（本地日期时间按UTC计算的毫秒数）
+     *
+     * @param epochMillis 时间戳
+     * @param zone        时区
+     * @return 本地时间毫秒数
+     */
+    public static long toLocalMillis(long epochMillis, ZoneId zone) {
+        if (zone instanceof ZoneOffset) {
+            return epochMillis + ((ZoneOffset) zone).getTotalSeconds() * 1000L;
+        }
+        OffsetRange range = INSTANT_RANGES.get(zone);
+        if (null == range || epochMillis < range.from || epochMillis >= range.to) {
+            RANGE_LOOKUPS.increment();
+            final ZoneRules rules = zone.getRules();
+            final Instant instant = Instant.ofEpochMilli(epochMillis);
+            final ZoneOffset offset = rules.getOffset(instant);
+            if (rules.isFixedOffset()) {
+                range = new OffsetRange(Long.MIN_VALUE, Long.MAX_VALUE, offset.getTotalSeconds() * 1000L);
+            } else {
+                final ZoneOffsetTransition previous = rules.previousTransition(instant);
+                final ZoneOffsetTransition next = rules.nextTransition(instant);
+                final long from = null == previous ? Long.MIN_VALUE : previous.toEpochSecond() * 1000;
+                final long to = null == next ? Long.MAX_VALUE : next.toEpochSecond() * 1000;
+                range = new OffsetRange(from, to, offset.getTotalSeconds() * 1000L);
+            }
+            INSTANT_RANGES.put(zone, range);
+        }
+        return epochMillis + range.offsetMillis;
+    }
+
+    /**
+     * 将本地时间毫秒数转换为时间戳<br>
+     * 夏令时切换造成的不存在的时间向后顺延，重复的时间取较早的偏移，与ZonedDateTime一致
+     *
+     * @param localMillis 本地时间毫秒数
+     * @param zone        时区
+     * @return 时间戳
+     */
+    public static long toEpochMillis(long localMillis, ZoneId zone) {
+        if (zone instanceof ZoneOffset) {
+            return localMillis - ((ZoneOffset) zone).getTotalSeconds() * 1000L;
+        }
+        OffsetRange range = LOCAL_RANGES.get(zone);
+        if (null == range || localMillis < range.from || localMillis >= range.to) {
+            RANGE_LOOKUPS.increment();
+            final ZoneRules rules = zone.getRules();
+            if (rules.isFixedOffset()) {
+                range = new OffsetRange(Long.MIN_VALUE, Long.MAX_VALUE, rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L);
+                LOCAL_RANGES.put(zone, range);
+                return localMillis - range.offsetMillis;
+            }
+            final long epochSecond = Math.floorDiv(localMillis, 1000L);
+            final LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, (int) Math.floorMod(localMillis, 1000L) * 1000000, ZoneOffset.UTC);
+            final long epochMillis = dateTime.atZone(zone).toInstant().toEpochMilli();
+            final long offsetMillis = localMillis - epochMillis;
+            if (rules.getTransition(dateTime) != null) {
+                // 处于切换的间隙或重叠中，不缓存
+                return epochMillis;
+            }
+            final Instant instant = Instant.ofEpochMilli(epochMillis);
+            final ZoneOffsetTransition previous = rules.previousTransition(instant);
+            final ZoneOffsetTransition next = rules.nextTransition(instant);
+            // 只缓存本地时间与偏移一一对应的区间
+            final long from = null == previous ? Long.MIN_VALUE
+                    : (previous.toEpochSecond() + Math.max(previous.getOffsetBefore().getTotalSeconds(), previous.getOffsetAfter().getTotalSeconds())) * 1000;
+            final long to = null == next ? Long.MAX_VALUE
+                    : (next.toEpochSecond() + Math.min(next.getOffsetBefore().getTotalSeconds(), next.getOffsetAfter().getTotalSeconds())) * 1000;
+            range = new OffsetRange(from, to, offsetMillis);
+            LOCAL_RANGES.put(zone, range);
+        }
+        return localMillis - range.offsetMillis;
+    }
+
+    /**
+     * 查询时区规则计算偏移区间的次数，缓存的区间命中时不增加，固定偏移的{@link ZoneOffset}不查询
+     *
+     * @return 次数
+     */
+    public static long getRangeLookupCount() {
+        return RANGE_LOOKUPS.sum();
+    }
+
+    // ------------------------------------------------------------------------ 私有方法
+
+    /**
+     * 确定两位年份所在的世纪，与SimpleDateFormat一致：以当前时间之前80年的同一时刻为起点，取解析结果不早于起点的最早年份<br>
+     * 起点每次按当前时间计算，不在类加载时固定
+     *
+     * @param value       两位年份
+     * @param month       月
+     * @param day         日
+     * @param millisOfDay 当天的毫秒数
+     * @param zone        时区
+     * @return 完整的年份
+     */
+    private static int resolveTwoDigitYear(int value, int month, int day, int millisOfDay, ZoneId zone) {
+        final long now = toLocalMillis(System.currentTimeMillis(), zone);
+        final long nowDate = civilFromDays(Math.floorDiv(now, MILLIS_PER_DAY));
+        final int startYear = (int) (nowDate >> 9) - 80;
+        int year = startYear - Math.floorMod(startYear, 100) + value;
+        if (year < startYear) {
+            year += 100;
+        } else if (year == startYear) {
+            // 与起点同一年时比较月日和时间
+            final int startMonth = (int) (nowDate >> 5) & 0x0F;
+            final int startDay = (int) nowDate & 0x1F;
+            final int startMillisOfDay = (int) Math.floorMod(now, MILLIS_PER_DAY);
+            if (month < startMonth || (month == startMonth && (day < startDay || (day == startDay && millisOfDay < startMillisOfDay)))) {
+                year += 100;
+            }
+        }
+        return year;
+    }
+
+    /**
+     * 根据距离1970-01-01的天数计算公历日期
+     *
+     * @param epochDay 天数
+     * @return 年 &lt;&lt; 9 | 月 &lt;&lt; 5 | 日
+     */
+    private static long civilFromDays(long epochDay) {
+        final long z = epochDay + DAYS_0000_TO_1970;
+        final long era = Math.floorDiv(z, 146097);
+        final long doe = z - era * 146097;
+        final long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        final long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        final long mp = (5 * doy + 2) / 153;
+        final int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        final int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        final long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+
+    /**
+     * 计算公历日期距离1970-01-01的天数
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        final int y = month <= 2 ? year - 1 : year;
+        final long era = Math.floorDiv(y, 400);
+        final long yoe = y - era * 400;
+        final long doy = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        final long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * 写入时分秒毫秒字段
+     */
+    private void writeTime(int millisOfDay, char[] buf, int offset) {
+        for (int i = 0; i < fields.length; i++) {
+            switch (fields[i]) {
+                case HOUR:
+                    writeDigits(buf, offset + positions[i], millisOfDay / 3600000, widths[i]);
+                    break;
+                case MINUTE:
+                    writeDigits(buf, offset + positions[i], millisOfDay / 60000 % 60, widths[i]);
+                    break;
+                case SECOND:
+                    writeDigits(buf, offset + positions[i], millisOfDay / 1000 % 60, widths[i]);
+                    break;
+                case MILLI:
+                    writeDigits(buf, offset + positions[i], millisOfDay % 1000, widths[i]);
+                    break;
+                default:
+            }
+        }
+    }
+
+    /**
+     * 解析固定位数的非负整数
+     *
+     * @return 数值，包含非数字字符时返回-1
+     */
+    private static int parseDigits(CharSequence str, int offset, int width) {
+        int value = 0;
+        for (int i = offset, end = offset + width; i < end; i++) {
+            final int digit = str.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return ((year & 3) == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 将非负整数按固定位数写入字符数组，不足位数补0
+     */
+    private static void writeDigits(char[] buf, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    /**
+     * 时区偏移不变的区间
+     */
+    private static final class OffsetRange {
+        private final long from;
+        private final long to;
+        private final long offsetMillis;
+
+        private OffsetRange(long from, long to, long offsetMillis) {
+            this.from = from;
+            this.to = to;
+            this.offsetMillis = offsetMillis;
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.zscp.master.util.bean;
+
+import com.zscp.master.util.ConvertUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 多关键词匹配（Aho–Corasick自动机），对文本扫描一遍即可找出词典中所有关键词的出现位置，耗时与词典大小无关<br>
+ * 可选忽略大小写以及全角转半角（与{@link ConvertUtil#toDBC(String)}一致），归一化逐字符进行，匹配位置即原文中的位置<br>
+ * 词典变化时调用{@link #reload(Collection)}在后台构建新的自动机后整体替换，替换前后的查询都不需要加锁
+ */
+public class KeywordMatcher {
+
+    /**
+     * 是否忽略大小写
+     */
+    private final boolean ignoreCase;
+    /**
+     * 是否将全角字符转为半角后匹配
+     */
+    private final boolean dbc;
+    /**
+     * 当前使用的自动机
+     */
+    private volatile Automaton automaton;
+
+    /**
+     * @param keywords   关键词
+     * @param ignoreCase 是否忽略大小写
+     * @param dbc        是否将全角字符转为半角后匹配
+     */
+    public KeywordMatcher(Collection<String> keywords, boolean ignoreCase, boolean dbc) {
+        this.ignoreCase = ignoreCase;
+        this.dbc = dbc;
+        reload(keywords);
+    }
+
+    /**
+     * 使用新的词典重建自动机，构建完成后原子替换，构建期间的查询使用旧词典
+     *
+     * @param keywords 关键词，空字符串和null被忽略
+     */
+    public void reload(Collection<String> keywords) {
+        this.automaton = new Automaton(keywords, ignoreCase, dbc);
+    }
+
+    /**
+     * @return 词典中关键词的数量（归一化后去重）
+     */
+    public int size() {
+        return automaton.keywords.length;
+    }
+
+    /**
+     * 文本中是否包含任意关键词
+     *
+     * @param text 文本
+     * @return 是否包含
+     */
+    public boolean contains(CharSequence text) {
+        final Automaton automaton = this.automaton;
+        if (null == text) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = automaton.next(state, automaton.normalize(text.charAt(i)));
+            if (automaton.output[state] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 统计文本中关键词出现的次数，重叠的关键词分别计数
+     *
+     * @param text 文本
+     * @return 出现的次数
+     */
+    public int count(CharSequence text) {
+        final int[] count = new int[1];
+        find(text, (start, end, keyword) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * 查找文本中出现的所有关键词，按结束位置排序，重叠的关键词都会返回
+     *
+     * @param text 文本
+     * @return 出现的关键词（词典中的原始形式）
+     */
+    public List<String> findAll(CharSequence text) {
+        final List<String> result = new ArrayList<String>();
+        find(text, (start, end, keyword) -> result.add(keyword));
+        return result;
+    }
+
+    /**
+     * 查找文本中出现的所有关键词，按结束位置依次回调
+     *
+     * @param text    文本
+     * @param handler 回调
+     */
+    public void find(CharSequence text, HitHandler handler) {
+        final Automaton automaton = this.automaton;
+        if (null == text) {
+            return;
+        }
+        int state = 0;
+        for (int i = 0, length = text.length(); i < length; i++) {
+            state = automaton.next(state, automaton.normalize(text.charAt(i)));
+            for (int hit = automaton.output[state]; hit > 0; hit = automaton.dictLink[hit]) {
+                handler.onHit(i + 1 - automaton.depth[hit], i + 1, automaton.keywords[automaton.keywordOf[hit]]);
+            }
+        }
+    }
+
+    /**
+     * 关键词命中的回调
+     */
+    public interface HitHandler {
+        /**
+         * @param start   关键词在文本中的起始位置
+         * @param end     关键词在文本中的结束位置（不包含）
+         * @param keyword 关键词（词典中的原始形式）
+         */
+        void onHit(int start, int end, String keyword);
+    }
+
+    /**
+     * 不可变的自动机<br>
+     * 根节点的转移使用数组直接索引，其它转移存放在以 (状态, 字符) 为key的开放寻址散列表中
+     */
+    private static final class Automaton {
+        private final boolean ignoreCase;
+        private final boolean dbc;
+        /**
+         * 关键词原始形式
+         */
+        private final String[] keywords;
+        /**
+         * 根节点的转移，下标为字符
+         */
+        private final int[] rootNext = new int[Character.MAX_VALUE + 1];
+        /**
+         * 转移表的key：状态 &lt;&lt; 16 | 字符，0表示空位
+         */
+        private long[] transitionKeys;
+        private int[] transitionValues;
+        /**
+         * 失配时跳转的状态
+         */
+        private int[] fail;
+        /**
+         * 状态本身是关键词结尾时为自身，否则为失配链上最近的关键词结尾状态，没有时为-1
+         */
+        private int[] output;
+        /**
+         * 失配链上下一个关键词结尾状态（不含自身），没有时为0
+         */
+        private int[] dictLink;
+        /**
+         * 关键词结尾状态对应的关键词下标
+         */
+        private int[] keywordOf;
+        /**
+         * 状态的深度，即匹配到此状态时的字符数
+         */
+        private int[] depth;
+
+        private Automaton(Collection<String> words, boolean ignoreCase, boolean dbc) {
+            this.ignoreCase = ignoreCase;
+            this.dbc = dbc;
+
+            // 按归一化后的形式去重
+            final List<String> originals = new ArrayList<String>();
+            final List<char[]> normalized = new ArrayList<char[]>();
+            final Set<String> seen = new HashSet<String>();
+            int totalLength = 0;
+            for (String word : null == words ? Collections.<String>emptyList() : words) {
+                if (null == word || word.isEmpty()) {
+                    continue;
+                }
+                char[] chars = new char[word.length()];
+                for (int i = 0; i < chars.length; i++) {
+                    chars[i] = normalize(word.charAt(i));
+                }
+                if (seen.add(new String(chars))) {
+                    originals.add(word);
+                    normalized.add(chars);
+                    totalLength += chars.length;
+                }
+            }
+            keywords = originals.toArray(new String[0]);
+
+            // 构建字典树，状态0为根节点
+            final int capacity = totalLength + 1;
+            final int[] firstChild = new int[capacity];
+            final int[] nextSibling = new int[capacity];
+            final char[] label = new char[capacity];
+            depth = new int[capacity];
+            keywordOf = new int[capacity];
+            Arrays.fill(keywordOf, -1);
+            Arrays.fill(rootNext, -1);
+            int tableSize = Integer.highestOneBit(Math.max(16, totalLength * 2)) << 1;
+            transitionKeys = new long[tableSize];
+            transitionValues = new int[tableSize];
+            int stateCount = 1;
+            for (int w = 0; w < normalized.size(); w++) {
+                int state = 0;
+                for (char c : normalized.get(w)) {
+                    int next = goTo(state, c);
+                    if (next < 0) {
+                        next = stateCount++;
+                        label[next] = c;
+                        depth[next] = depth[state] + 1;
+                        nextSibling[next] = firstChild[state];
+                        firstChild[state] = next;
+                        putTransition(state, c, next);
+                    }
+                    state = next;
+                }
+                keywordOf[state] = w;
+            }
+
+            // 广度优先计算失配跳转
+            fail = new int[stateCount];
+            output = new int[stateCount];
+            dictLink = new int[stateCount];
+            final int[] queue = new int[stateCount];
+            int head = 0;
+            int tail = 0;
+            output[0] = -1;
+            for (int child = firstChild[0]; child != 0; child = nextSibling[child]) {
+                queue[tail++] = child;
+            }
+            while (head < tail) {
+                final int state = queue[head++];
+                final int failState = fail[state];
+                dictLink[state] = Math.max(output[failState], 0);
+                output[state] = keywordOf[state] >= 0 ? state : output[failState];
+                for (int child = firstChild[state]; child != 0; child = nextSibling[child]) {
+                    fail[child] = next(failState, label[child]);
+                    queue[tail++] = child;
+                }
+            }
+            // 根节点的子节点失配后回到根节点
+            for (int i = 0; i < rootNext.length; i++) {
+                if (rootNext[i] < 0) {
+                    rootNext[i] = 0;
+                }
+            }
+            depth = Arrays.copyOf(depth, stateCount);
+            keywordOf = Arrays.copyOf(keywordOf, stateCount);
+        }
+
+        /**
+         * 按配置归一化字符
+         */
+        private char normalize(char c) {
+            if (dbc) {
+                c = ConvertUtil.toDBC(c);
+            }
+            if (ignoreCase) {
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            return c;
+        }
+
+        /**
+         * 读入一个字符后的状态
+         */
+        private int next(int state, char c) {
+            while (state != 0) {
+                int next = goTo(state, c);
+                if (next >= 0) {
+                    return next;
+                }
+                state = fail[state];
+            }
+            return Math.max(rootNext[c], 0);
+        }
+
+        /**
+         * 字典树上的直接转移
+         *
+         * @return 目标状态，不存在时返回-1
+         */
+        private int goTo(int state, char c) {
+            if (state == 0) {
+                return rootNext[c];
+            }
+            final long key = ((long) state << 16) | c;
+            final int mask = transitionKeys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                final long k = transitionKeys[i];
+                if (k == key) {
+                    return transitionValues[i];
+                }
+                if (k == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        private void putTransition(int state, char c, int next) {
+            if (state == 0) {
+                rootNext[c] = next;
+                return;
+            }
+            final long key = ((long) state << 16) | c;
+            final int mask = transitionKeys.length - 1;
+            int i = hash(key) & mask;
+            while (transitionKeys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            transitionKeys[i] = key;
+            transitionValues[i] = next;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
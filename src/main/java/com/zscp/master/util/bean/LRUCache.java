@@ -0,0 +1,194 @@
+package com.zscp.master.util.bean;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 线程安全的有界缓存，超出容量时淘汰最久未被访问的对象<br>
+ * 读取不加锁，只在淘汰时加锁，淘汰时一次清理到容量的3/4，避免每次写入都扫描<br>
+ * 访问时间使用写入次数作为时钟，两次写入之间的访问视为同一时刻，读取时不需要获取系统时间，淘汰时同一时刻的对象只淘汰补足数量所需的部分
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型
+ */
+public class LRUCache<K, V> {
+
+    /**
+     * 缓存对象
+     */
+    private final Map<K, Node<V>> cache;
+    /**
+     * 最大容量
+     */
+    private final int capacity;
+    /**
+     * 逻辑时钟，每次写入加1
+     */
+    private final AtomicLong clock = new AtomicLong();
+    /**
+     * 命中次数
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * 未命中次数
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity 最大容量
+     */
+    public LRUCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0!");
+        }
+        this.capacity = capacity;
+        this.cache = new ConcurrentHashMap<K, Node<V>>(Math.min(capacity, 1024));
+    }
+
+    /**
+     * 获取缓存对象
+     *
+     * @param key 键
+     * @return 值，不存在返回null
+     */
+    public V get(K key) {
+        Node<V> node = cache.get(key);
+        if (null == node) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        final long now = clock.get();
+        if (node.lastAccess != now) {
+            node.lastAccess = now;
+        }
+        return node.value;
+    }
+
+    /**
+     * 获取缓存对象，不存在时通过loader创建并放入缓存
+     *
+     * @param key    键
+     * @param loader 值的创建方法
+     * @return 值
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = get(key);
+        if (null == value) {
+            value = loader.apply(key);
+            if (null != value) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * 放入缓存对象
+     *
+     * @param key   键
+     * @param value 值
+     */
+    public void put(K key, V value) {
+        cache.put(key, new Node<V>(value, clock.incrementAndGet()));
+        if (cache.size() > capacity) {
+            evict();
+        }
+    }
+
+    /**
+     * 移除缓存对象
+     *
+     * @param key 键
+     * @return 被移除的值
+     */
+    public V remove(K key) {
+        Node<V> node = cache.remove(key);
+        return null == node ? null : node.value;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return 获取时命中的次数
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return 获取时未命中的次数
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 淘汰最久未被访问的对象，直到缓存大小不超过容量的3/4
+     */
+    private synchronized void evict() {
+        if (cache.size() <= capacity) {
+            return;
+        }
+        long[] accesses = new long[cache.size()];
+        int count = 0;
+        for (Node<V> node : cache.values()) {
+            if (count == accesses.length) {
+                break;
+            }
+            accesses[count++] = node.lastAccess;
+        }
+        int excess = count - capacity * 3 / 4;
+        if (excess <= 0) {
+            return;
+        }
+        Arrays.sort(accesses, 0, count);
+        final long threshold = accesses[excess - 1];
+        // 两次写入之间读取过的对象访问时间相同，与阈值相同的对象只淘汰补足数量所需的部分
+        int ties = 0;
+        for (int i = excess - 1; i >= 0 && accesses[i] == threshold; i--) {
+            ties++;
+        }
+        Iterator<Node<V>> it = cache.values().iterator();
+        while (it.hasNext()) {
+            final long lastAccess = it.next().lastAccess;
+            if (lastAccess < threshold) {
+                it.remove();
+            } else if (lastAccess == threshold && ties > 0) {
+                it.remove();
+                ties--;
+            }
+        }
+    }
+
+    /**
+     * 缓存节点，记录最后访问时间
+     */
+    private static class Node<V> {
+        private final V value;
+        private long lastAccess;
+
+        private Node(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.zscp.master.util.bean;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * 稀疏的行偏移索引，每隔固定行数记录一行的起始位置，按行号读取时从最近的记录处开始查找，不必从文件开头逐行跳过<br>
+ * 行以\n分隔（\r\n结尾时去掉\r），行号从0开始；索引可以保存在文件旁边，文件只在末尾追加时可以在原索引基础上继续建立
+ */
+public class LineIndex {
+
+    /**
+     * 默认的记录间隔行数
+     */
+    public static final int DEFAULT_INTERVAL = 1000;
+    /**
+     * 保存在文件旁边时索引文件的后缀
+     */
+    public static final String FILE_SUFFIX = ".lidx";
+    /**
+     * 索引文件的标识
+     */
+    private static final int MAGIC = 0x4C494458;
+
+    private final int interval;
+    private final long length;
+    private final long lastModified;
+    private final long lineBreaks;
+    private final long lastLineStart;
+    private final long[] offsets;
+
+    /**
+     * @param interval      记录间隔行数
+     * @param length        建立索引时的文件大小
+     * @param lastModified  建立索引时文件的修改时间
+     * @param lineBreaks    换行符的数量
+     * @param lastLineStart 最后一个换行符的下一个位置，没有换行符时为0
+     * @param offsets       第i * interval行的起始位置，第一个元素为0
+     */
+    public LineIndex(int interval, long length, long lastModified, long lineBreaks, long lastLineStart, long[] offsets) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be greater than 0!");
+        }
+        if (offsets.length == 0 || offsets[0] != 0) {
+            throw new IllegalArgumentException("Offsets must start with 0!");
+        }
+        this.interval = interval;
+        this.length = length;
+        this.lastModified = lastModified;
+        this.lineBreaks = lineBreaks;
+        this.lastLineStart = lastLineStart;
+        this.offsets = offsets.clone();
+    }
+
+    /**
+     * 读取保存的索引
+     *
+     * @param indexFile 索引文件
+     * @return 索引
+     * @throws IOException IO异常，不是索引文件时也会抛出
+     */
+    public static LineIndex read(File indexFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a line index file: " + indexFile);
+            }
+            final int interval = in.readInt();
+            final long length = in.readLong();
+            final long lastModified = in.readLong();
+            final long lineBreaks = in.readLong();
+            final long lastLineStart = in.readLong();
+            final int count = in.readInt();
+            if (interval <= 0 || count <= 0 || count > lineBreaks / interval + 1) {
+                throw new IOException("Corrupted line index file: " + indexFile);
+            }
+            final long[] offsets = new long[count];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = in.readLong();
+            }
+            return new LineIndex(interval, length, lastModified, lineBreaks, lastLineStart, offsets);
+        }
+    }
+
+    /**
+     * 保存索引，覆盖已有内容
+     *
+     * @param indexFile 索引文件
+     * @throws IOException IO异常
+     */
+    public void write(File indexFile) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(interval);
+            out.writeLong(length);
+            out.writeLong(lastModified);
+            out.writeLong(lineBreaks);
+            out.writeLong(lastLineStart);
+            out.writeInt(offsets.length);
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+        }
+    }
+
+    /**
+     * @return 记录间隔行数
+     */
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * @return 建立索引时的文件大小
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @return 建立索引时文件的修改时间
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return 换行符的数量
+     */
+    public long getLineBreaks() {
+        return lineBreaks;
+    }
+
+    /**
+     * @return 最后一个换行符的下一个位置，没有换行符时为0
+     */
+    public long getLastLineStart() {
+        return lastLineStart;
+    }
+
+    /**
+     * 行数，最后一行没有换行符时也计入
+     *
+     * @return 行数
+     */
+    public long getLineCount() {
+        return lineBreaks + (length > lastLineStart ? 1 : 0);
+    }
+
+    /**
+     * @return 记录的位置数
+     */
+    public int getOffsetCount() {
+        return offsets.length;
+    }
+
+    /**
+     * @param index 记录序号
+     * @return 第index * interval行的起始位置
+     */
+    public long getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * 与文件当前的大小和修改时间是否一致
+     *
+     * @param file 文件
+     * @return 是否一致
+     */
+    public boolean isValid(File file) {
+        return file.length() == length && file.lastModified() == lastModified;
+    }
+
+    @Override
+    public String toString() {
+        return "LineIndex{lines=" + getLineCount() + ", interval=" + interval + ", length=" + length + "}";
+    }
+}
@@ -0,0 +1,160 @@
+package com.zscp.master.util.bean;
+
+import com.zscp.master.util.StringUtil;
+
+/**
+ * 预编译的字符串模板，{} 表示占位符<br>
+ * 模板只在创建时扫描一次，拆分为文本片段和占位符，格式化时按片段顺序拼接，不再重复查找占位符<br>
+ * 转义规则与 {@link com.zscp.master.util.StringUtil#format(String, Object...)} 一致：
+ * <ul>
+ * <li>\\{} 表示占位符被转义，输出 {}</li>
+ * <li>\\\\{} 表示转义符被转义，输出 \ 加参数值</li>
+ * </ul>
+ * 对象不可变，可在多线程间共享
+ */
+public final class StrTemplate {
+
+    /**
+     * 正常占位符
+     */
+    private static final byte NORMAL = 0;
+    /**
+     * 被转义的占位符
+     */
+    private static final byte ESCAPED = 1;
+    /**
+     * 占位符前的转义符被转义
+     */
+    private static final byte DOUBLE_ESCAPED = 2;
+    /**
+     * 预估的单个参数长度，用于初始化StringBuilder的容量
+     */
+    private static final int ESTIMATED_PARAM_LENGTH = 16;
+
+    /**
+     * 原始模板
+     */
+    private final String template;
+    /**
+     * 每个占位符之前的文本片段
+     */
+    private final String[] segments;
+    /**
+     * 每个占位符的类型
+     */
+    private final byte[] types;
+    /**
+     * 处理完每个占位符后模板中已处理到的位置
+     */
+    private final int[] handledPositions;
+    /**
+     * 所有占位符都被替换时输出的文本长度（不含参数）
+     */
+    private final int literalLength;
+    /**
+     * 最后一个占位符之后的文本
+     */
+    private final String tail;
+
+    private StrTemplate(String template) {
+        this.template = template;
+
+        int count = 0;
+        for (int i = template.indexOf(StringUtil.EMPTY_JSON); i != -1; i = template.indexOf(StringUtil.EMPTY_JSON, i + 2)) {
+            count++;
+        }
+
+        segments = new String[count];
+        types = new byte[count];
+        handledPositions = new int[count];
+
+        int handledPosition = 0;
+        int length = 0;
+        int delimIndex = -2;
+        for (int i = 0; i < count; i++) {
+            delimIndex = template.indexOf(StringUtil.EMPTY_JSON, delimIndex + 2);
+            int segmentEnd;
+            if (delimIndex > 0 && template.charAt(delimIndex - 1) == StringUtil.C_BACKSLASH) {
+                segmentEnd = delimIndex - 1;
+                if (delimIndex > 1 && template.charAt(delimIndex - 2) == StringUtil.C_BACKSLASH) {
+                    types[i] = DOUBLE_ESCAPED;
+                } else {
+                    types[i] = ESCAPED;
+                }
+            } else {
+                segmentEnd = delimIndex;
+                types[i] = NORMAL;
+            }
+            segments[i] = template.substring(handledPosition, segmentEnd);
+            length += segments[i].length() + (types[i] == ESCAPED ? 1 : 0);
+            handledPosition = (types[i] == ESCAPED) ? delimIndex + 1 : delimIndex + 2;
+            handledPositions[i] = handledPosition;
+        }
+        tail = template.substring(handledPosition);
+        literalLength = length + tail.length();
+    }
+
+    /**
+     * 编译模板
+     *
+     * @param template 文本模板，被替换的部分用 {} 表示
+     * @return 编译后的模板
+     */
+    public static StrTemplate compile(String template) {
+        if (null == template) {
+            throw new NullPointerException("Template is null!");
+        }
+        return new StrTemplate(template);
+    }
+
+    /**
+     * 格式化文本，按顺序将占位符替换为参数
+     *
+     * @param params 参数值
+     * @return 格式化后的文本
+     */
+    public String format(Object... params) {
+        final int count = segments.length;
+        if (params == null || params.length == 0 || count == 0) {
+            return template;
+        }
+
+        // 参数用完后剩余部分原样输出
+        final StringBuilder sb = new StringBuilder(literalLength + ESTIMATED_PARAM_LENGTH * params.length);
+        int argIndex = 0;
+        int i = 0;
+        for (; i < count && argIndex < params.length; i++) {
+            sb.append(segments[i]);
+            if (types[i] == ESCAPED) {
+                sb.append(StringUtil.C_DELIM_START);
+            } else {
+                sb.append(params[argIndex++].toString());
+            }
+        }
+        if (i == count) {
+            sb.append(tail);
+        } else {
+            sb.append(template, handledPositions[i - 1], template.length());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return 占位符的数量，包括被转义的占位符
+     */
+    public int placeholderCount() {
+        return segments.length;
+    }
+
+    /**
+     * @return 原始模板
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
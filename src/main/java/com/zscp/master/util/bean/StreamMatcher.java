@@ -0,0 +1,190 @@
+package com.zscp.master.util.bean;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 在字符流上查找正则匹配，用法与{@link Matcher#find()}类似<br>
+ * 内容按固定大小的窗口读入，窗口之间保留一段重叠区域，跨越窗口边界的匹配会在读入后续内容后再判断，内存占用与输入大小无关<br>
+ * 重叠区域的长度即支持的最大匹配长度（也是逆序环视可见的上下文长度），超过窗口大小的匹配会被截断<br>
+ * 非线程安全
+ */
+public class StreamMatcher implements Closeable {
+
+    /**
+     * 默认窗口大小（字符数）
+     */
+    public static final int DEFAULT_WINDOW = 64 * 1024;
+    /**
+     * 默认重叠区域大小（字符数）
+     */
+    public static final int DEFAULT_OVERLAP = 4 * 1024;
+
+    private final Pattern pattern;
+    private final Reader reader;
+    private final int overlap;
+    /**
+     * 窗口缓冲
+     */
+    private final char[] buf;
+    /**
+     * 缓冲中有效字符数
+     */
+    private int len;
+    /**
+     * 下一次查找的起始位置
+     */
+    private int pos;
+    /**
+     * 上一个空匹配的位置，用于避免在窗口移动后重复返回同一个空匹配
+     */
+    private int lastEmpty = -1;
+    /**
+     * 缓冲第一个字符在流中的位置
+     */
+    private long base;
+    private boolean eof;
+    private boolean finished;
+    /**
+     * 当前窗口上的匹配器，需要读入新内容时为null
+     */
+    private Matcher matcher;
+
+    /**
+     * @param pattern 正则
+     * @param reader  字符流
+     */
+    public StreamMatcher(Pattern pattern, Reader reader) {
+        this(pattern, reader, DEFAULT_WINDOW, DEFAULT_OVERLAP);
+    }
+
+    /**
+     * @param pattern 正则
+     * @param reader  字符流
+     * @param window  窗口大小（字符数）
+     * @param overlap 重叠区域大小，即最大匹配长度，必须大于0且小于窗口大小的一半
+     */
+    public StreamMatcher(Pattern pattern, Reader reader, int window, int overlap) {
+        if (overlap <= 0 || window <= overlap * 2) {
+            throw new IllegalArgumentException(String.format("Invalid window [%d] or overlap [%d]!", window, overlap));
+        }
+        this.pattern = pattern;
+        this.reader = reader;
+        this.overlap = overlap;
+        this.buf = new char[window];
+    }
+
+    /**
+     * 查找下一个匹配
+     *
+     * @return 是否找到
+     * @throws IOException 读取失败
+     */
+    public boolean find() throws IOException {
+        if (finished) {
+            return false;
+        }
+        while (true) {
+            if (null == matcher) {
+                if (false == eof) {
+                    fill();
+                }
+                matcher = pattern.matcher(CharBuffer.wrap(buf, 0, len))
+                        .useTransparentBounds(true).useAnchoringBounds(false).region(pos, len);
+            }
+            if (matcher.find()) {
+                final int start = matcher.start();
+                final int end = matcher.end();
+                if (false == eof && matcher.hitEnd() && (start > overlap || len < buf.length)) {
+                    // 匹配结果依赖后续内容，读入更多内容后重新查找
+                    pos = start;
+                    matcher = null;
+                    continue;
+                }
+                if (start == end && start == lastEmpty) {
+                    continue;
+                }
+                pos = end;
+                lastEmpty = start == end ? end : -1;
+                return true;
+            }
+            if (eof) {
+                finished = true;
+                matcher = null;
+                return false;
+            }
+            // 匹配可能从窗口末尾开始，保留重叠区域
+            pos = matcher.hitEnd() ? Math.max(pos, len - overlap) : len;
+            matcher = null;
+        }
+    }
+
+    /**
+     * @return 匹配的内容
+     */
+    public String group() {
+        return current().group();
+    }
+
+    /**
+     * @param group 分组序号
+     * @return 分组匹配的内容
+     */
+    public String group(int group) {
+        return current().group(group);
+    }
+
+    /**
+     * @return 匹配在流中的起始位置（字符）
+     */
+    public long start() {
+        return base + current().start();
+    }
+
+    /**
+     * @return 匹配在流中的结束位置（字符，不包含）
+     */
+    public long end() {
+        return base + current().end();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * 丢弃已查找过的内容（保留重叠区域作为上下文），并将窗口读满
+     */
+    private void fill() throws IOException {
+        final int discard = Math.max(0, pos - overlap);
+        if (discard > 0) {
+            System.arraycopy(buf, discard, buf, 0, len - discard);
+            len -= discard;
+            pos -= discard;
+            if (lastEmpty >= 0) {
+                lastEmpty -= discard;
+            }
+            base += discard;
+        }
+        while (len < buf.length) {
+            int n = reader.read(buf, len, buf.length - len);
+            if (n < 0) {
+                eof = true;
+                break;
+            }
+            len += n;
+        }
+    }
+
+    private Matcher current() {
+        if (null == matcher) {
+            throw new IllegalStateException("No match available");
+        }
+        return matcher;
+    }
+}
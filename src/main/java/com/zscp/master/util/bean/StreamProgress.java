@@ -1,7 +1,8 @@
 package com.zscp.master.util.bean;
 
 /**
- * Stream进度条
+ * Stream进度条<br>
+ * 拷贝时每读写一次缓冲就会回调{@link #progress(long)}，需要限制回调频率或获取速率时使用{@link ThrottledProgress}包装
  *
  * @author Looly
  */
@@ -12,6 +13,15 @@ public interface StreamProgress {
      */
     public void start();
 
+    /**
+     * 开始，已知总大小时由调用方传入，默认调用{@link #start()}
+     *
+     * @param totalSize 总大小，未知时为-1
+     */
+    default void start(long totalSize) {
+        start();
+    }
+
     /**
      * 进行中
      *
@@ -19,6 +29,18 @@ public interface StreamProgress {
      */
     public void progress(long progressSize);
 
+    /**
+     * 进行中，由{@link ThrottledProgress}回调，附带总大小、速率和预计剩余时间，默认调用{@link #progress(long)}
+     *
+     * @param progressSize   已经进行的大小
+     * @param totalSize      总大小，未知时为-1
+     * @param bytesPerSecond 速率（字节/秒，指数加权平均）
+     * @param etaMillis      预计剩余时间（毫秒），总大小未知或速率为0时为-1
+     */
+    default void progress(long progressSize, long totalSize, double bytesPerSecond, long etaMillis) {
+        progress(progressSize);
+    }
+
     /**
      * 结束
      */
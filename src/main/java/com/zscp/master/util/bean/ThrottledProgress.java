@@ -0,0 +1,181 @@
+package com.zscp.master.util.bean;
+
+/**
+ * 限制回调频率的进度条<br>
+ * 包装另一个进度条，距上次回调超过时间间隔或增加的字节数超过步长时才回调，结束前总会回调一次最终进度<br>
+ * 回调时附带总大小、速率（按时间衰减的指数加权平均）和预计剩余时间，见{@link StreamProgress#progress(long, long, double, long)}<br>
+ * 非线程安全，一个实例只用于一次传输
+ */
+public class ThrottledProgress implements StreamProgress {
+
+    /**
+     * 默认回调间隔，单位毫秒
+     */
+    public static final long DEFAULT_INTERVAL = 200;
+    /**
+     * 速率平均的时间常数，单位纳秒，越大越平滑
+     */
+    private static final double RATE_TIME_CONSTANT = 1_000_000_000d;
+
+    private final StreamProgress delegate;
+    private final long intervalNanos;
+    private final long bytesStep;
+    /**
+     * 总大小，未知时为-1
+     */
+    private long totalSize;
+    private long progressSize;
+    private long reportedSize;
+    private long reportedNanos;
+    private double bytesPerSecond;
+
+    /**
+     * @param delegate 被包装的进度条
+     */
+    public ThrottledProgress(StreamProgress delegate) {
+        this(delegate, -1);
+    }
+
+    /**
+     * @param delegate  被包装的进度条
+     * @param totalSize 总大小，未知时为-1
+     */
+    public ThrottledProgress(StreamProgress delegate, long totalSize) {
+        this(delegate, totalSize, DEFAULT_INTERVAL, 0);
+    }
+
+    /**
+     * @param delegate       被包装的进度条
+     * @param totalSize      总大小，未知时为-1
+     * @param intervalMillis 回调间隔，单位毫秒，小于等于0表示不按时间回调
+     * @param bytesStep      回调步长，单位字节，小于等于0表示不按字节数回调
+     */
+    public ThrottledProgress(StreamProgress delegate, long totalSize, long intervalMillis, long bytesStep) {
+        if (null == delegate) {
+            throw new NullPointerException("Delegate progress is null!");
+        }
+        this.delegate = delegate;
+        this.totalSize = totalSize;
+        this.intervalNanos = intervalMillis > 0 ? intervalMillis * 1_000_000 : Long.MAX_VALUE;
+        this.bytesStep = bytesStep > 0 ? bytesStep : Long.MAX_VALUE;
+    }
+
+    /**
+     * 包装进度条，已经是{@link ThrottledProgress}时直接返回（总大小未知时补充总大小）
+     *
+     * @param streamProgress 进度条，可以为null
+     * @param totalSize      总大小，未知时为-1
+     * @return 包装后的进度条，streamProgress为null时返回null
+     */
+    public static StreamProgress wrap(StreamProgress streamProgress, long totalSize) {
+        if (null == streamProgress) {
+            return null;
+        }
+        if (streamProgress instanceof ThrottledProgress) {
+            final ThrottledProgress throttled = (ThrottledProgress) streamProgress;
+            if (throttled.totalSize < 0) {
+                throttled.totalSize = totalSize;
+            }
+            return throttled;
+        }
+        return new ThrottledProgress(streamProgress, totalSize);
+    }
+
+    @Override
+    public void start() {
+        start(-1);
+    }
+
+    @Override
+    public void start(long totalSize) {
+        if (totalSize >= 0) {
+            this.totalSize = totalSize;
+        }
+        progressSize = 0;
+        reportedSize = 0;
+        bytesPerSecond = 0;
+        reportedNanos = System.nanoTime();
+        delegate.start(this.totalSize);
+    }
+
+    @Override
+    public void progress(long progressSize) {
+        this.progressSize = progressSize;
+        final long bytes = progressSize - reportedSize;
+        if (bytes >= bytesStep) {
+            report(System.nanoTime());
+            return;
+        }
+        final long now = System.nanoTime();
+        if (now - reportedNanos >= intervalNanos) {
+            report(now);
+        }
+    }
+
+    @Override
+    public void progress(long progressSize, long totalSize, double bytesPerSecond, long etaMillis) {
+        if (totalSize >= 0) {
+            this.totalSize = totalSize;
+        }
+        progress(progressSize);
+    }
+
+    @Override
+    public void finish() {
+        if (progressSize != reportedSize) {
+            report(System.nanoTime());
+        }
+        delegate.finish();
+    }
+
+    /**
+     * @return 总大小，未知时为-1
+     */
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * @return 已经进行的大小
+     */
+    public long getProgressSize() {
+        return progressSize;
+    }
+
+    /**
+     * @return 最近一次回调时的速率（字节/秒）
+     */
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * @return 预计剩余时间（毫秒），总大小未知或速率为0时为-1
+     */
+    public long getEtaMillis() {
+        if (totalSize < 0 || bytesPerSecond <= 0) {
+            return -1;
+        }
+        return (long) (Math.max(0, totalSize - progressSize) * 1000 / bytesPerSecond);
+    }
+
+    /**
+     * 更新速率并回调
+     */
+    private void report(long now) {
+        final long elapsed = now - reportedNanos;
+        if (elapsed > 0) {
+            final double rate = (progressSize - reportedSize) * 1_000_000_000d / elapsed;
+            if (bytesPerSecond <= 0) {
+                bytesPerSecond = rate;
+            } else {
+                // 按时间衰减的权重，回调间隔不均匀时也能反映最近的速率
+                final double alpha = 1 - Math.exp(-elapsed / RATE_TIME_CONSTANT);
+                bytesPerSecond += alpha * (rate - bytesPerSecond);
+            }
+        }
+        reportedSize = progressSize;
+        reportedNanos = now;
+        delegate.progress(progressSize, totalSize, bytesPerSecond, getEtaMillis());
+    }
+}
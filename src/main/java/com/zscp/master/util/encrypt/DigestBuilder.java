@@ -0,0 +1,108 @@
+package com.zscp.master.util.encrypt;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 摘要算法的整理<br>
+ * MessageDigest不是线程安全的，这里为每个线程缓存各算法的实例，多线程计算摘要时不需要加锁，也不需要每次查找算法提供者
+ */
+public class DigestBuilder {
+
+    public static final String MD5 = "MD5";
+    public static final String SHA1 = "SHA-1";
+    public static final String SHA256 = "SHA-256";
+
+    private static final ThreadLocal<MessageDigest> MD5_DIGEST = ThreadLocal.withInitial(() -> newDigest(MD5));
+    private static final ThreadLocal<MessageDigest> SHA1_DIGEST = ThreadLocal.withInitial(() -> newDigest(SHA1));
+    private static final ThreadLocal<MessageDigest> SHA256_DIGEST = ThreadLocal.withInitial(() -> newDigest(SHA256));
+
+    /**
+     * 其它算法的线程缓存，key为算法名称
+     */
+    private static final ConcurrentMap<String, ThreadLocal<MessageDigest>> DIGESTS = new ConcurrentHashMap<String, ThreadLocal<MessageDigest>>();
+
+    static {
+        DIGESTS.put(MD5, MD5_DIGEST);
+        DIGESTS.put(SHA1, SHA1_DIGEST);
+        DIGESTS.put(SHA256, SHA256_DIGEST);
+    }
+
+    /**
+     * 获取当前线程缓存的摘要实例，返回前已重置<br>
+     * 实例在同一线程内复用，计算完成（调用digest）之前不要在同一线程再次获取同一算法的实例
+     *
+     * @param algorithm 算法名称，如 MD5、SHA-1、SHA-256
+     * @return 摘要实例
+     * @throws IllegalArgumentException 不支持的算法
+     */
+    public static MessageDigest getDigest(String algorithm) {
+        ThreadLocal<MessageDigest> local = DIGESTS.get(algorithm);
+        if (null == local) {
+            // 先检查算法是否存在，避免缓存无效的算法名称
+            newDigest(algorithm);
+            local = DIGESTS.computeIfAbsent(algorithm, key -> ThreadLocal.withInitial(() -> newDigest(key)));
+        }
+        MessageDigest digest = local.get();
+        digest.reset();
+        return digest;
+    }
+
+    /**
+     * 计算摘要
+     *
+     * @param algorithm 算法名称
+     * @param data      数据
+     * @return 摘要
+     */
+    public static byte[] digest(String algorithm, byte[] data) {
+        return getDigest(algorithm).digest(data);
+    }
+
+    /**
+     * @param data 数据
+     * @return MD5摘要
+     */
+    public static byte[] md5(byte[] data) {
+        return digest(MD5_DIGEST, data);
+    }
+
+    /**
+     * @param data 数据
+     * @return SHA-1摘要
+     */
+    public static byte[] sha1(byte[] data) {
+        return digest(SHA1_DIGEST, data);
+    }
+
+    /**
+     * @param data 数据
+     * @return SHA-256摘要
+     */
+    public static byte[] sha256(byte[] data) {
+        return digest(SHA256_DIGEST, data);
+    }
+
+    private static byte[] digest(ThreadLocal<MessageDigest> local, byte[] data) {
+        MessageDigest digest = local.get();
+        digest.reset();
+        return digest.digest(data);
+    }
+
+    /**
+     * 创建摘要实例
+     *
+     * @param algorithm 算法名称
+     * @return 摘要实例
+     * @throws IllegalArgumentException 不支持的算法
+     */
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
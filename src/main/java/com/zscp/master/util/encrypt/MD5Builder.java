@@ -1,16 +1,14 @@
 package com.zscp.master.util.encrypt;
 
-import java.io.UnsupportedEncodingException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import com.zscp.master.util.HexUtil;
+
+import java.nio.charset.StandardCharsets;
 
 /**
  * Created by wujin on 2017/2/7.
  */
 public class MD5Builder {
 
-    private static final String[] hexDigits = {"0", "1", "2", "3", "4", "5",
-            "6", "7", "8", "9", "a", "b", "c", "d", "e", "f"};
     /**
      * MD5加密
      *
@@ -18,26 +16,7 @@ public class MD5Builder {
      * @return 加密后的字符串
      */
     public static String getMD5Str(String str) {
-        MessageDigest messageDigest = null;
-        try {
-            messageDigest = MessageDigest.getInstance("MD5");
-            messageDigest.reset();
-            messageDigest.update(str.getBytes("UTF-8"));
-        } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
-        } catch (UnsupportedEncodingException e) {
-            e.printStackTrace();
-        }
-        byte[] byteArray = messageDigest.digest();
-        StringBuffer md5StrBuff = new StringBuffer();
-        for (int i = 0; i < byteArray.length; i++) {
-            if (Integer.toHexString(0xFF & byteArray[i]).length() == 1) {
-                md5StrBuff.append("0").append(Integer.toHexString(0xFF & byteArray[i]));
-            } else {
-                md5StrBuff.append(Integer.toHexString(0xFF & byteArray[i]));
-            }
-        }
-        return md5StrBuff.toString();
+        return HexUtil.encodeHexStr(DigestBuilder.md5(str.getBytes(StandardCharsets.UTF_8)));
     }
 
     /**
@@ -64,45 +43,15 @@ public class MD5Builder {
         String resultString = null;
         try {
             resultString = new String(origin);
-            MessageDigest md = MessageDigest.getInstance("MD5");
             if (charsetname == null || "".equals(charsetname)) {
-                resultString = byteArrayToHexString(md.digest(resultString
+                resultString = HexUtil.encodeHexStr(DigestBuilder.md5(resultString
                         .getBytes()));
             } else {
-                resultString = byteArrayToHexString(md.digest(resultString
+                resultString = HexUtil.encodeHexStr(DigestBuilder.md5(resultString
                         .getBytes(charsetname)));
             }
         } catch (Exception exception) {
         }
         return resultString;
     }
-
-    /**
-     * byte转16进制字符串
-     * @param b byte数组
-     * @return  16进制字符串
-     */
-    private static String byteArrayToHexString(byte[] b) {
-        StringBuffer resultSb = new StringBuffer();
-        for (int i = 0; i < b.length; i++) {
-            resultSb.append(byteToHexString(b[i]));
-        }
-
-        return resultSb.toString();
-    }
-
-    /**
-     * byte转16进制字符串
-     * @param b byte
-     * @return  16进制字符串
-     */
-    private static String byteToHexString(byte b) {
-        int n = b;
-        if (n < 0) {
-            n += 256;
-        }
-        int d1 = n / 16;
-        int d2 = n % 16;
-        return hexDigits[d1] + hexDigits[d2];
-    }
 }
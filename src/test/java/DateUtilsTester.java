@@ -0,0 +1,156 @@
+import com.zscp.master.util.DateUtils;
+import com.zscp.master.util.bean.CachedClock;
+import com.zscp.master.util.bean.FastDateCodec;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DateUtilsTester {
+
+    @Test
+    public void testFormat() {
+        Date date = new Date(1482286830123L);
+        String[] patterns = {DateUtils.DATE_FULL_STR, DateUtils.DATE_SMALL_STR, DateUtils.DATE_KEY_STR, DateUtils.DATE_JFP_STR,
+                "yyyy-MM-dd'T'HH:mm:ss.SSS", "yyyy/M/d h:mm a", "EEEE, MMMM d, yyyy"};
+        for (String pattern : patterns) {
+            Assert.assertEquals(new SimpleDateFormat(pattern).format(date), DateUtils.formatDate(date, pattern));
+        }
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        String[][] cases = {{DateUtils.DATE_FULL_STR, "2016-12-21 10:20:30"}, {DateUtils.DATE_SMALL_STR, "2016-1-5"},
+                {DateUtils.DATE_SMALL_STR, "2016-02-30"}, {DateUtils.DATE_KEY_STR, "991231235959"}, {DateUtils.DATE_JFP_STR, "201612"},
+                {DateUtils.DATE_SMALL_STR, "2016-12-21 10:20:30"}, {"HH:mm", "25:00"}, {"HH:mm:ss", "47:59:60"},
+                {"yyyy-MM-dd HH:mm", "2016-12-31 24:30"}};
+        for (String[] c : cases) {
+            Assert.assertEquals(new SimpleDateFormat(c[0]).parse(c[1]), DateUtils.parse(c[1], c[0]));
+        }
+        Assert.assertNull(DateUtils.parse("abc", DateUtils.DATE_SMALL_STR));
+    }
+
+    @Test
+    public void testParseIrregular() throws Exception {
+        // 相邻数字字段、位数或空白不规范的字符串与SimpleDateFormat的结果一致
+        String[][] cases = {{DateUtils.DATE_KEY_STR, "16122110203"}, {DateUtils.DATE_KEY_STR, "1612211020301"},
+                {DateUtils.DATE_KEY_STR, "16-221102030"}, {DateUtils.DATE_JFP_STR, "20161"},
+                {DateUtils.DATE_FULL_STR, " 2016-12-21 10:20:30"}, {DateUtils.DATE_SMALL_STR, "2016-12-21extra"}};
+        for (String[] c : cases) {
+            Assert.assertEquals(c[1], new SimpleDateFormat(c[0]).parse(c[1]), DateUtils.parse(c[1], c[0]));
+        }
+        Assert.assertEquals(new SimpleDateFormat("yyyyMMdd").parse("2016121"), DateUtils.parse("2016121", "yyyyMMdd"));
+        // 两位年份的世纪与SimpleDateFormat一致
+        LocalDateTime start = LocalDateTime.now().minusYears(80);
+        for (LocalDateTime date : new LocalDateTime[]{start.minusDays(2), start.plusDays(2)}) {
+            String str = date.format(DateTimeFormatter.ofPattern("dd/MM/yy"));
+            Assert.assertEquals(str, new SimpleDateFormat("dd/MM/yy").parse(str), DateUtils.parse(str, "dd/MM/yy"));
+        }
+    }
+
+    @Test
+    public void testFastDateCodec() throws Exception {
+        FastDateCodec codec = FastDateCodec.of(DateUtils.DATE_FULL_STR);
+        long millis = new SimpleDateFormat(DateUtils.DATE_FULL_STR).parse("2016-12-21 10:20:30").getTime();
+        Assert.assertEquals(millis, codec.parse("2016-12-21 10:20:30"));
+        Assert.assertEquals("2016-12-21 10:20:30", codec.format(millis));
+        Assert.assertEquals(millis, DateUtils.dateToUnixTimestamp("2016-12-21 10:20:30"));
+        // 不完全匹配的字符串交给通用解析
+        Assert.assertEquals(FastDateCodec.INVALID, codec.parse("2016-1-21 10:20:30"));
+        Assert.assertEquals(FastDateCodec.INVALID, codec.parse("2016-02-30 10:20:30"));
+        Assert.assertNull(FastDateCodec.of("yyyy/M/d"));
+        Assert.assertNull(FastDateCodec.of("yyyy-MM-dd'T'HH"));
+    }
+
+    @Test
+    public void testTwoDigitYearPivot() throws Exception {
+        // 两位年份以当前时间之前80年的同一时刻为起点，起点之前一天属于下一个世纪
+        LocalDateTime start = LocalDateTime.now().minusYears(80).withNano(0);
+        DateTimeFormatter key = DateTimeFormatter.ofPattern("yyMMddHHmmss");
+        LocalDateTime before = start.minusDays(1);
+        LocalDateTime after = start.plusDays(1);
+        Date parsedBefore = DateUtils.parse(before.format(key), DateUtils.DATE_KEY_STR);
+        Date parsedAfter = DateUtils.parse(after.format(key), DateUtils.DATE_KEY_STR);
+        Assert.assertEquals(new SimpleDateFormat(DateUtils.DATE_KEY_STR).parse(before.format(key)), parsedBefore);
+        Assert.assertEquals(new SimpleDateFormat(DateUtils.DATE_KEY_STR).parse(after.format(key)), parsedAfter);
+        Assert.assertEquals(before.plusYears(100).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), parsedBefore.getTime());
+        Assert.assertEquals(after.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), parsedAfter.getTime());
+    }
+
+    @Test
+    public void testOffsetRangeCache() {
+        ZoneId shanghai = ZoneId.of("Asia/Shanghai");
+        ZoneId newYork = ZoneId.of("America/New_York");
+        long millis = 1482286830000L;
+        FastDateCodec.toLocalMillis(millis, shanghai);
+        FastDateCodec.toLocalMillis(millis, newYork);
+        FastDateCodec.toEpochMillis(millis, shanghai);
+        FastDateCodec.toEpochMillis(millis, newYork);
+        // 各时区分别缓存，交替使用不同时区时仍然命中
+        long lookups = FastDateCodec.getRangeLookupCount();
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(millis + i + 8 * 3600000L, FastDateCodec.toLocalMillis(millis + i, shanghai));
+            Assert.assertEquals(millis + i - 5 * 3600000L, FastDateCodec.toLocalMillis(millis + i, newYork));
+            Assert.assertEquals(millis + i - 8 * 3600000L, FastDateCodec.toEpochMillis(millis + i, shanghai));
+            Assert.assertEquals(millis + i + 5 * 3600000L, FastDateCodec.toEpochMillis(millis + i, newYork));
+        }
+        Assert.assertEquals(lookups, FastDateCodec.getRangeLookupCount());
+
+        // 固定偏移直接计算，不查询时区规则
+        Assert.assertEquals(millis + 8 * 3600000L, FastDateCodec.toLocalMillis(millis, ZoneOffset.ofHours(8)));
+        Assert.assertEquals(millis - 8 * 3600000L, FastDateCodec.toEpochMillis(millis, ZoneOffset.ofHours(8)));
+        Assert.assertEquals(lookups, FastDateCodec.getRangeLookupCount());
+    }
+
+    @Test
+    public void testCachedClock() {
+        final AtomicInteger count = new AtomicInteger();
+        CachedClock clock = new CachedClock(1000, millis -> {
+            count.incrementAndGet();
+            return String.valueOf(millis / 1000);
+        });
+        Assert.assertEquals("1482286830", clock.format(1482286830000L));
+        Assert.assertEquals("1482286830", clock.format(1482286830999L));
+        Assert.assertEquals(1, count.get());
+        Assert.assertEquals("1482286831", clock.format(1482286831000L));
+        Assert.assertEquals(2, count.get());
+        Assert.assertEquals(DateUtils.DATE_FULL_STR.length(), DateUtils.getNowTime().length());
+    }
+
+    @Test
+    public void testBatchFormat() throws Exception {
+        long[] timestamps = {1482286830000L, 1482286831000L, 1482350400000L, 1482250000000L};
+        for (String pattern : new String[]{DateUtils.DATE_FULL_STR, DateUtils.DATE_KEY_STR, "yyyy/M/d H:mm"}) {
+            String[] result = DateUtils.unixTimestampToDate(timestamps, pattern);
+            StringBuilder sb = new StringBuilder();
+            DateUtils.unixTimestampToDate(Arrays.stream(timestamps), pattern, sb, ",");
+            String[] appended = sb.toString().split(",");
+            for (int i = 0; i < timestamps.length; i++) {
+                Assert.assertEquals(DateUtils.unixTimestampToDate(timestamps[i], pattern), result[i]);
+                Assert.assertEquals(result[i], appended[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testBatchFormatReusesOffset() throws Exception {
+        long[] timestamps = new long[10000];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = 1482286830000L + i * 600000L;
+        }
+        DateUtils.unixTimestampToDate(timestamps, DateUtils.DATE_FULL_STR);
+        // GMT+8为固定偏移，批量转换时不逐个查询时区规则
+        long lookups = FastDateCodec.getRangeLookupCount();
+        String[] result = DateUtils.unixTimestampToDate(timestamps, DateUtils.DATE_FULL_STR);
+        DateUtils.unixTimestampToDate(Arrays.stream(timestamps), DateUtils.DATE_KEY_STR, new StringBuilder(), null);
+        Assert.assertEquals(lookups, FastDateCodec.getRangeLookupCount());
+        Assert.assertEquals(DateUtils.unixTimestampToDate(timestamps[9999], DateUtils.DATE_FULL_STR), result[9999]);
+    }
+}
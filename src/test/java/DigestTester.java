@@ -0,0 +1,227 @@
+import com.zscp.master.util.FileUtil;
+import com.zscp.master.util.bean.ChunkDigest;
+import com.zscp.master.util.bean.StreamProgress;
+import com.zscp.master.util.encrypt.DigestBuilder;
+import com.zscp.master.util.encrypt.MD5Builder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class DigestTester {
+
+    @Test
+    public void testDigest() throws Exception {
+        Assert.assertEquals("e10adc3949ba59abbe56e057f20f883e", MD5Builder.getMD5Str("123456"));
+        Assert.assertEquals("e10adc3949ba59abbe56e057f20f883e", MD5Builder.encodeToString("123456", "UTF-8"));
+        byte[] data = "abc".getBytes(StandardCharsets.UTF_8);
+        Assert.assertArrayEquals(MessageDigest.getInstance("SHA-1").digest(data), DigestBuilder.sha1(data));
+        Assert.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(data), DigestBuilder.sha256(data));
+        Assert.assertArrayEquals(MessageDigest.getInstance("SHA-512").digest(data), DigestBuilder.digest("SHA-512", data));
+        Assert.assertSame(DigestBuilder.getDigest(DigestBuilder.MD5), DigestBuilder.getDigest(DigestBuilder.MD5));
+        try {
+            DigestBuilder.getDigest("NO-SUCH");
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // 预期的异常
+        }
+    }
+
+    @Test
+    public void testConcurrentFileMD5() throws Exception {
+        final List<File> files = new ArrayList<File>();
+        final List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 4; i++) {
+            byte[] content = new byte[100000 + i * 1234];
+            for (int j = 0; j < content.length; j++) {
+                content[j] = (byte) (j * (i + 3));
+            }
+            File file = File.createTempFile("digest", ".bin");
+            file.deleteOnExit();
+            Files.write(file.toPath(), content);
+            files.add(file);
+            expected.add(hex(MessageDigest.getInstance("MD5").digest(content)));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < 20; round++) {
+                        for (int i = 0; i < files.size(); i++) {
+                            if (false == expected.get(i).equals(FileUtil.fileMD5(files.get(i)))) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assert.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFileDigest() throws Exception {
+        // 跨越多个映射窗口和进度片段，且末尾不对齐
+        byte[] content = new byte[70 * 1024 * 1024 + 123];
+        new Random(7).nextBytes(content);
+        File file = File.createTempFile("digest", ".bin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content);
+        final long[] progress = new long[3];
+        String sha256 = FileUtil.fileDigest(file, DigestBuilder.SHA256, new StreamProgress() {
+            @Override
+            public void start() {
+                progress[0]++;
+            }
+
+            @Override
+            public void progress(long progressSize) {
+                Assert.assertTrue(progressSize > progress[1]);
+                progress[1] = progressSize;
+            }
+
+            @Override
+            public void finish() {
+                progress[2]++;
+            }
+        });
+        Assert.assertEquals(hex(MessageDigest.getInstance("SHA-256").digest(content)), sha256);
+        Assert.assertEquals(1, progress[0]);
+        Assert.assertEquals(content.length, progress[1]);
+        Assert.assertEquals(1, progress[2]);
+
+        // 小文件与空文件，MD5保留前导0
+        for (int size : new int[]{0, 1, 5000, 1024 * 1024 - 1, 1024 * 1024}) {
+            byte[] small = Arrays.copyOf(content, size);
+            Files.write(file.toPath(), small);
+            Assert.assertEquals(hex(MessageDigest.getInstance("MD5").digest(small)), FileUtil.fileMD5(file));
+            Assert.assertEquals(hex(MessageDigest.getInstance("SHA-1").digest(small)), FileUtil.fileDigest(file, DigestBuilder.SHA1));
+        }
+        Assert.assertNull(FileUtil.fileMD5(new File(file.getPath() + ".missing")));
+    }
+
+    @Test
+    public void testFindDuplicates() throws Exception {
+        File dir = Files.createTempDirectory("duplicates").toFile();
+        try {
+            File sub = new File(dir, "sub");
+            Assert.assertTrue(sub.mkdir());
+            Files.write(new File(dir, "a.txt").toPath(), "hello world".getBytes(StandardCharsets.UTF_8));
+            Files.write(new File(sub, "a-copy.txt").toPath(), "hello world".getBytes(StandardCharsets.UTF_8));
+            // 大小相同但内容不同
+            Files.write(new File(dir, "b.txt").toPath(), "hello there".getBytes(StandardCharsets.UTF_8));
+            Files.write(new File(dir, "c.txt").toPath(), "unique".getBytes(StandardCharsets.UTF_8));
+            Files.write(new File(dir, "empty1").toPath(), new byte[0]);
+            Files.write(new File(sub, "empty2").toPath(), new byte[0]);
+
+            Map<String, List<File>> duplicates = FileUtil.findDuplicates(dir, DigestBuilder.MD5);
+            Assert.assertEquals(2, duplicates.size());
+            List<File> same = duplicates.get(MD5Builder.getMD5Str("hello world"));
+            Assert.assertEquals(2, same.size());
+            Assert.assertEquals(2, duplicates.get(MD5Builder.getMD5Str("")).size());
+
+            ExecutorService executor = Executors.newFixedThreadPool(3);
+            try {
+                Map<String, List<File>> parallel = FileUtil.findDuplicates(dir, DigestBuilder.MD5, executor);
+                Assert.assertEquals(duplicates, parallel);
+                List<File> files = new ArrayList<File>(FileUtil.listFile(dir));
+                files.add(new File(dir, "missing"));
+                Assert.assertEquals(duplicates, FileUtil.findDuplicates(files, DigestBuilder.MD5, executor));
+            } finally {
+                executor.shutdown();
+            }
+        } finally {
+            FileUtil.deleteDir(dir);
+        }
+    }
+
+    @Test
+    public void testChunkDigest() throws Exception {
+        byte[] content = new byte[3 * 1024 * 1024 + 100];
+        new Random(11).nextBytes(content);
+        File file = File.createTempFile("chunk", ".bin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content);
+        final int chunkSize = 1024 * 1024;
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ChunkDigest digest = FileUtil.fileChunkDigest(file, DigestBuilder.SHA256, chunkSize, executor);
+            Assert.assertEquals(4, digest.getChunkCount());
+            Assert.assertEquals(content.length, digest.getLength());
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[][] leaves = new byte[4][];
+            for (int i = 0; i < 4; i++) {
+                sha256.update((byte) 0x00);
+                leaves[i] = sha256.digest(Arrays.copyOfRange(content, i * chunkSize, Math.min(content.length, (i + 1) * chunkSize)));
+                Assert.assertEquals(hex(leaves[i]), digest.getChunkHash(i));
+            }
+            sha256.update((byte) 0x01);
+            sha256.update(leaves[0]);
+            sha256.update(leaves[1]);
+            byte[] left = sha256.digest();
+            sha256.update((byte) 0x01);
+            sha256.update(leaves[2]);
+            sha256.update(leaves[3]);
+            byte[] right = sha256.digest();
+            sha256.update((byte) 0x01);
+            sha256.update(left);
+            sha256.update(right);
+            byte[] top = sha256.digest();
+            sha256.update((byte) 0x02);
+            sha256.update(ByteBuffer.allocate(16).putLong(chunkSize).putLong(content.length).array());
+            sha256.update(top);
+            Assert.assertEquals(hex(sha256.digest()), digest.getRoot());
+            Assert.assertEquals(digest.getRoot(), FileUtil.fileChunkDigest(file, DigestBuilder.SHA256, chunkSize, null).getRoot());
+
+            // 修改第三块后只有第三块不同
+            content[2 * chunkSize + 5]++;
+            Files.write(file.toPath(), content);
+            ChunkDigest changed = FileUtil.fileChunkDigest(file, DigestBuilder.SHA256, chunkSize, executor);
+            Assert.assertEquals(Arrays.asList(2), digest.diff(changed));
+            Assert.assertNotEquals(digest.getRoot(), changed.getRoot());
+
+            // 根摘要包含分块方式，只有一块时也不等于文件摘要
+            ChunkDigest single = FileUtil.fileChunkDigest(file, DigestBuilder.MD5);
+            Assert.assertEquals(1, single.getChunkCount());
+            Assert.assertNotEquals(FileUtil.fileMD5(file), single.getRoot());
+            ChunkDigest larger = FileUtil.fileChunkDigest(file, DigestBuilder.MD5, 2 * ChunkDigest.DEFAULT_CHUNK_SIZE, null);
+            Assert.assertEquals(single.getChunkHash(0), larger.getChunkHash(0));
+            Assert.assertNotEquals(single.getRoot(), larger.getRoot());
+
+            Files.write(file.toPath(), new byte[0]);
+            ChunkDigest empty = FileUtil.fileChunkDigest(file, DigestBuilder.MD5, chunkSize, executor);
+            Assert.assertEquals(0, empty.getChunkCount());
+            Assert.assertNotEquals(MD5Builder.getMD5Str(""), empty.getRoot());
+            Assert.assertEquals(empty.getRoot(), FileUtil.fileChunkDigest(file, DigestBuilder.MD5, chunkSize, null).getRoot());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b & 0xFF));
+        }
+        return sb.toString();
+    }
+}
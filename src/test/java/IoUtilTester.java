@@ -0,0 +1,552 @@
+import com.zscp.master.util.FileUtil;
+import com.zscp.master.util.IoUtil;
+import com.zscp.master.util.bean.BufferPool;
+import com.zscp.master.util.bean.LineIndex;
+import com.zscp.master.util.bean.StreamProgress;
+import com.zscp.master.util.bean.ThrottledProgress;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class IoUtilTester {
+
+    @Test
+    public void testCopyStream() throws Exception {
+        byte[] data = new byte[100000];
+        new Random(3).nextBytes(data);
+        final int[] flushes = new int[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() throws IOException {
+                flushes[0]++;
+            }
+        };
+        CountingProgress progress = new CountingProgress();
+        Assert.assertEquals(data.length, IoUtil.copy(new ByteArrayInputStream(data), out, 0, progress));
+        Assert.assertArrayEquals(data, out.toByteArray());
+        Assert.assertEquals(1, flushes[0]);
+        Assert.assertEquals(data.length, progress.last);
+        Assert.assertEquals(1, progress.finished);
+
+        final int[] writerFlushes = new int[1];
+        StringWriter writer = new StringWriter() {
+            @Override
+            public void flush() {
+                writerFlushes[0]++;
+            }
+        };
+        char[] chars = new char[20000];
+        Arrays.fill(chars, 'x');
+        Assert.assertEquals(chars.length, IoUtil.copy(new StringReader(new String(chars)), writer));
+        Assert.assertEquals(new String(chars), writer.toString());
+        Assert.assertEquals(1, writerFlushes[0]);
+    }
+
+    @Test
+    public void testCopyFile() throws Exception {
+        byte[] data = new byte[10 * 1024 * 1024 + 17];
+        new Random(5).nextBytes(data);
+        File source = File.createTempFile("copy", ".src");
+        File target = File.createTempFile("copy", ".dst");
+        source.deleteOnExit();
+        target.deleteOnExit();
+        Files.write(source.toPath(), data);
+
+        // 从输入流的当前位置开始拷贝，拷贝后输入流位于末尾
+        CountingProgress progress = new CountingProgress();
+        try (FileInputStream in = new FileInputStream(source); FileOutputStream out = new FileOutputStream(target)) {
+            Assert.assertEquals(100, in.skip(100));
+            Assert.assertEquals(data.length - 100, IoUtil.copy(in, out, 0, progress));
+            Assert.assertEquals(-1, in.read());
+        }
+        Assert.assertArrayEquals(Arrays.copyOfRange(data, 100, data.length), Files.readAllBytes(target.toPath()));
+        Assert.assertEquals(data.length - 100, progress.last);
+        Assert.assertEquals(1, progress.started);
+
+        try (FileInputStream in = new FileInputStream(source); FileOutputStream out = new FileOutputStream(target, true)) {
+            Assert.assertEquals(data.length, IoUtil.copy(in, out));
+        }
+        Assert.assertEquals(data.length * 2L - 100, target.length());
+
+        try (FileChannel in = FileChannel.open(source.toPath()); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Assert.assertEquals(data.length, IoUtil.copy(in, Channels.newChannel(out), 0, null));
+            Assert.assertArrayEquals(data, out.toByteArray());
+        }
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            Assert.assertEquals(data.length, IoUtil.copy(Channels.newChannel(new ByteArrayInputStream(data)), Channels.newChannel(out), 1000, null));
+            Assert.assertArrayEquals(data, out.toByteArray());
+        }
+
+        Assert.assertTrue(FileUtil.copy(source, target.getPath()));
+        Assert.assertArrayEquals(data, Files.readAllBytes(target.toPath()));
+    }
+
+    @Test
+    public void testBufferPool() throws Exception {
+        BufferPool pool = new BufferPool(1024 * 1024);
+        byte[] small = pool.acquireBytes(5000);
+        Assert.assertEquals(8192, small.length);
+        pool.release(small);
+        // 线程本地缓存命中
+        Assert.assertSame(small, pool.acquireBytes(8000));
+        Assert.assertEquals(0, pool.getRetainedBytes());
+
+        byte[] large = pool.acquireBytes(300 * 1024);
+        Assert.assertEquals(512 * 1024, large.length);
+        pool.release(large);
+        Assert.assertEquals(512 * 1024, pool.getRetainedBytes());
+        // 超过上限的缓冲不保留
+        pool.release(new byte[1024 * 1024]);
+        Assert.assertEquals(512 * 1024, pool.getRetainedBytes());
+        // 共享队列可以被其它线程使用
+        final byte[][] fromOtherThread = new byte[1][];
+        Thread thread = new Thread(() -> fromOtherThread[0] = pool.acquireBytes(400 * 1024));
+        thread.start();
+        thread.join();
+        Assert.assertSame(large, fromOtherThread[0]);
+        Assert.assertEquals(0, pool.getRetainedBytes());
+
+        // 非级别大小及超过最大级别的缓冲
+        pool.release(new byte[5000]);
+        Assert.assertEquals(BufferPool.MAX_SIZE + 1, pool.acquireBytes(BufferPool.MAX_SIZE + 1).length);
+
+        ByteBuffer direct = pool.acquireDirect(100);
+        Assert.assertTrue(direct.isDirect());
+        Assert.assertEquals(BufferPool.MIN_SIZE, direct.capacity());
+        direct.putInt(42).limit(10);
+        pool.release(direct);
+        ByteBuffer again = pool.acquireDirect(BufferPool.MIN_SIZE);
+        Assert.assertSame(direct, again);
+        Assert.assertEquals(0, again.position());
+        Assert.assertEquals(again.capacity(), again.limit());
+
+        ByteBuffer heap = pool.acquireHeap(1);
+        Assert.assertFalse(heap.isDirect());
+        pool.release(heap);
+        Assert.assertSame(heap.array(), pool.acquireBytes(1));
+    }
+
+    @Test
+    public void testThrottledProgress() throws Exception {
+        final List<long[]> reports = new ArrayList<long[]>();
+        final long[] started = {-2};
+        StreamProgress recorder = new StreamProgress() {
+            @Override
+            public void start() {
+            }
+
+            @Override
+            public void start(long totalSize) {
+                started[0] = totalSize;
+            }
+
+            @Override
+            public void progress(long progressSize) {
+                Assert.fail("Rate-aware callback expected");
+            }
+
+            @Override
+            public void progress(long progressSize, long totalSize, double bytesPerSecond, long etaMillis) {
+                Assert.assertTrue(bytesPerSecond > 0);
+                Assert.assertTrue(etaMillis >= 0);
+                reports.add(new long[]{progressSize, totalSize});
+            }
+
+            @Override
+            public void finish() {
+            }
+        };
+        ThrottledProgress progress = new ThrottledProgress(recorder, 10050, 0, 1000);
+        progress.start();
+        Assert.assertEquals(10050, started[0]);
+        for (long size = 100; size <= 10050; size += 50) {
+            Thread.sleep(0, 1000);
+            progress.progress(size);
+        }
+        progress.finish();
+        // 每1000字节回调一次，最后补充一次最终进度
+        Assert.assertEquals(11, reports.size());
+        Assert.assertEquals(1000, reports.get(0)[0]);
+        Assert.assertEquals(10050, reports.get(10)[0]);
+        Assert.assertEquals(10050, reports.get(10)[1]);
+        Assert.assertEquals(0, progress.getEtaMillis());
+
+        // 拷贝时默认按时间限制回调次数
+        byte[] data = new byte[20 * 1024 * 1024];
+        CountingProgress counting = new CountingProgress();
+        IoUtil.copy(new ByteArrayInputStream(data), new ByteArrayOutputStream(), 1024, counting);
+        Assert.assertTrue(counting.calls < 1000);
+        Assert.assertEquals(data.length, counting.last);
+        Assert.assertEquals(1, counting.finished);
+
+        // 文件拷贝时传入总大小
+        File source = File.createTempFile("progress", ".src");
+        File target = File.createTempFile("progress", ".dst");
+        source.deleteOnExit();
+        target.deleteOnExit();
+        Files.write(source.toPath(), data);
+        reports.clear();
+        Assert.assertTrue(FileUtil.copy(source, target.getPath(), recorder));
+        Assert.assertEquals(data.length, started[0]);
+        Assert.assertEquals(data.length, reports.get(reports.size() - 1)[0]);
+        Assert.assertEquals(data.length, reports.get(reports.size() - 1)[1]);
+    }
+
+    @Test
+    public void testCopyAsync() throws Exception {
+        byte[] data = new byte[5 * 1024 * 1024 + 333];
+        new Random(9).nextBytes(data);
+        File source = File.createTempFile("async", ".src");
+        File target = File.createTempFile("async", ".dst");
+        source.deleteOnExit();
+        target.deleteOnExit();
+        Files.write(source.toPath(), data);
+        // 目标文件中原有的内容被覆盖
+        Files.write(target.toPath(), new byte[data.length * 2]);
+
+        CountingProgress progress = new CountingProgress();
+        Assert.assertEquals(data.length, IoUtil.copyAsync(source, target, progress).get(30, TimeUnit.SECONDS).longValue());
+        Assert.assertArrayEquals(data, Files.readAllBytes(target.toPath()));
+        Assert.assertEquals(data.length, progress.last);
+        Assert.assertEquals(1, progress.finished);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Assert.assertEquals(data.length, IoUtil.copyAsync(new ByteArrayInputStream(data), out, 0, null, executor).get().longValue());
+            Assert.assertArrayEquals(data, out.toByteArray());
+
+            // 取消后停止读取
+            final AtomicReference<CompletableFuture<Long>> holder = new AtomicReference<CompletableFuture<Long>>();
+            final CountDownLatch started = new CountDownLatch(1);
+            final AtomicInteger reads = new AtomicInteger();
+            InputStream endless = new InputStream() {
+                @Override
+                public int read() {
+                    return 0;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    reads.incrementAndGet();
+                    started.countDown();
+                    return len;
+                }
+            };
+            holder.set(IoUtil.copyAsync(endless, new ByteArrayOutputStream(), 0, null, executor));
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            Assert.assertTrue(holder.get().cancel(true));
+            // 单线程的线程池执行完后续任务时拷贝任务已经退出，之后不会再读取
+            executor.submit(() -> null).get(10, TimeUnit.SECONDS);
+            int readsAfterCancel = reads.get();
+            executor.submit(() -> null).get(10, TimeUnit.SECONDS);
+            Assert.assertEquals(readsAfterCancel, reads.get());
+            Assert.assertTrue(holder.get().isCancelled());
+            try {
+                IoUtil.copyAsync(new ByteArrayInputStream(data), out, 0, null, null);
+                Assert.fail();
+            } catch (NullPointerException e) {
+                // 预期的异常
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // 文件拷贝在进度回调中取消
+        final AtomicReference<CompletableFuture<Long>> fileFuture = new AtomicReference<CompletableFuture<Long>>();
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        StreamProgress canceller = new StreamProgress() {
+            @Override
+            public void start() {
+            }
+
+            @Override
+            public void progress(long progressSize) {
+                synchronized (fileFuture) {
+                    fileFuture.get().cancel(true);
+                }
+                cancelled.countDown();
+            }
+
+            @Override
+            public void finish() {
+                Assert.fail("Cancelled copy must not finish");
+            }
+        };
+        synchronized (fileFuture) {
+            fileFuture.set(IoUtil.copyAsync(source, target, new ThrottledProgress(canceller, -1, 0, 1)));
+        }
+        Assert.assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(fileFuture.get().isCancelled());
+
+        CompletableFuture<Long> missing = IoUtil.copyAsync(new File(source.getPath() + ".missing"), target, null);
+        try {
+            missing.join();
+            Assert.fail();
+        } catch (CompletionException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testStreamLines() throws Exception {
+        File file = File.createTempFile("lines", ".txt");
+        file.deleteOnExit();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append("第").append(i).append("行").append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        Files.write(file.toPath(), sb.toString().getBytes("GBK"));
+
+        List<String> expected = FileUtil.readLines(file, "GBK");
+        Assert.assertEquals(10000, expected.size());
+        try (Stream<String> lines = FileUtil.streamLines(file, "GBK")) {
+            Assert.assertEquals(expected, lines.collect(Collectors.toList()));
+        }
+        try (Stream<String> lines = FileUtil.streamLines(file, Charset.forName("GBK"))) {
+            Assert.assertEquals("第5行", lines.skip(5).findFirst().get());
+        }
+        final List<String> handled = new ArrayList<String>();
+        FileUtil.forEachLine(file, "GBK", handled::add);
+        Assert.assertEquals(expected, handled);
+
+        // 关闭Stream时关闭输入流，行按需读取
+        final boolean[] closed = new boolean[1];
+        final int[] reads = new int[1];
+        InputStream in = new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                reads[0]++;
+                return super.read(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                closed[0] = true;
+            }
+        };
+        Stream<String> lines = IoUtil.streamLines(in, StandardCharsets.UTF_8);
+        Assert.assertEquals(0, reads[0]);
+        Assert.assertEquals("第0行", lines.findFirst().get());
+        // 只读取了开头的一小部分
+        Assert.assertTrue(reads[0] < 5);
+        lines.close();
+        Assert.assertTrue(closed[0]);
+    }
+
+    @Test
+    public void testCountLines() throws Exception {
+        File file = File.createTempFile("count", ".txt");
+        file.deleteOnExit();
+        Random random = new Random(13);
+        for (int size : new int[]{0, 1, 7, 8, 9, 100, 1024 * 1024 + 3}) {
+            byte[] data = new byte[size];
+            long expected = 0;
+            for (int i = 0; i < size; i++) {
+                data[i] = (byte) (random.nextInt(8) == 0 ? '\n' : random.nextInt(256));
+                if (data[i] == '\n') {
+                    expected++;
+                }
+            }
+            Files.write(file.toPath(), data);
+            Assert.assertEquals(expected, FileUtil.countLines(file, null));
+        }
+
+        // 超过并行阈值的文件按区域并行统计
+        byte[] block = new byte[1024 * 1024];
+        long expected = 0;
+        for (int i = 0; i < block.length; i++) {
+            block[i] = (byte) (i % 97 == 0 ? '\n' : 'a' + i % 26);
+            if (block[i] == '\n') {
+                expected++;
+            }
+        }
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            for (int i = 0; i < 150; i++) {
+                out.write(block);
+            }
+            out.write("tail".getBytes(StandardCharsets.US_ASCII));
+        }
+        Assert.assertEquals(expected * 150, FileUtil.countLines(file, new ForkJoinPool(3)));
+        Assert.assertEquals(expected * 150, FileUtil.countLines(file, null));
+    }
+
+    @Test
+    public void testProcessLines() throws Exception {
+        File source = File.createTempFile("process", ".txt");
+        File target = File.createTempFile("process", ".out");
+        source.deleteOnExit();
+        target.deleteOnExit();
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Files.write(source.toPath(), new byte[0]);
+            Assert.assertEquals(Long.valueOf(0), FileUtil.reduceLines(source, StandardCharsets.UTF_8, pool, 0L, (count, line) -> count + 1, Long::sum));
+            Assert.assertEquals(0, FileUtil.transformLines(source, StandardCharsets.UTF_8, target, pool, line -> line));
+            Assert.assertEquals(0, target.length());
+
+            // 超过一个区域的文件，混合\n和\r\n，最后一行没有换行符
+            Random random = new Random(17);
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(source))) {
+                for (int i = 0; i < 1500000; i++) {
+                    out.write(("第" + i + "行 line " + random.nextInt()).getBytes(StandardCharsets.UTF_8));
+                    out.write(random.nextBoolean() ? "\n".getBytes() : "\r\n".getBytes());
+                }
+                out.write("最后一行".getBytes(StandardCharsets.UTF_8));
+            }
+            Assert.assertTrue(source.length() > 32 * 1024 * 1024);
+            List<String> lines = FileUtil.readLines(source, "UTF-8");
+
+            long length = 0;
+            for (String line : lines) {
+                length += line.length();
+            }
+            for (ForkJoinPool p : new ForkJoinPool[]{pool, null}) {
+                Assert.assertEquals(Long.valueOf(lines.size()), FileUtil.reduceLines(source, StandardCharsets.UTF_8, p, 0L, (count, line) -> count + 1, Long::sum));
+                Assert.assertEquals(Long.valueOf(length), FileUtil.reduceLines(source, StandardCharsets.UTF_8, p, 0L, (sum, line) -> sum + line.length(), Long::sum));
+            }
+
+            List<String> expected = new ArrayList<String>();
+            for (int i = 0; i < lines.size(); i++) {
+                if (false == lines.get(i).endsWith("0")) {
+                    expected.add(lines.get(i).toUpperCase());
+                }
+            }
+            for (ForkJoinPool p : new ForkJoinPool[]{pool, null}) {
+                long written = FileUtil.transformLines(source, StandardCharsets.UTF_8, target, p, line -> line.endsWith("0") ? null : line.toUpperCase());
+                Assert.assertEquals(expected.size(), written);
+                Assert.assertEquals(expected, FileUtil.readLines(target, "UTF-8"));
+            }
+
+            try {
+                FileUtil.reduceLines(source, StandardCharsets.UTF_16, pool, 0L, (count, line) -> count + 1, Long::sum);
+                Assert.fail();
+            } catch (IllegalArgumentException e) {
+                // 换行符不是单字节的字符集无法按字节切分
+            }
+
+            // 目标文件与源文件相同时拒绝，不能截断源文件
+            long sourceLength = source.length();
+            try {
+                FileUtil.transformLines(source, StandardCharsets.UTF_8, new File(source.getParentFile(), "./" + source.getName()), pool, line -> line);
+                Assert.fail();
+            } catch (IllegalArgumentException e) {
+                Assert.assertEquals(sourceLength, source.length());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testTailAndLineRange() throws Exception {
+        File file = File.createTempFile("tail", ".log");
+        File indexFile = new File(file.getPath() + LineIndex.FILE_SUFFIX);
+        file.deleteOnExit();
+        indexFile.deleteOnExit();
+
+        Files.write(file.toPath(), new byte[0]);
+        Assert.assertEquals(new ArrayList<String>(), FileUtil.tail(file, 3, StandardCharsets.UTF_8));
+        Assert.assertEquals(new ArrayList<String>(), FileUtil.lines(file, 0, 3, StandardCharsets.UTF_8, FileUtil.lineIndex(file)));
+
+        Files.write(file.toPath(), "a\r\nb\n\nc".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(Arrays.asList("b", "", "c"), FileUtil.tail(file, 3, StandardCharsets.UTF_8));
+        Assert.assertEquals(Arrays.asList("a", "b", "", "c"), FileUtil.tail(file, 10, StandardCharsets.UTF_8));
+        Files.write(file.toPath(), "a\r\nb\n\nc\n".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(Arrays.asList("", "c"), FileUtil.tail(file, 2, StandardCharsets.UTF_8));
+        Assert.assertEquals(Arrays.asList("a", "b"), FileUtil.lines(file, 0, 2, StandardCharsets.UTF_8, null));
+        Assert.assertEquals(4, FileUtil.lineIndex(file).getLineCount());
+
+        // 跨越多个读取块的文件
+        List<String> expected = new ArrayList<String>();
+        Random random = new Random(23);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            char[] padding = new char[random.nextInt(40)];
+            Arrays.fill(padding, 'x');
+            String line = "第" + i + "行 " + new String(padding);
+            expected.add(line);
+            builder.append(line).append(random.nextBoolean() ? "\n" : "\r\n");
+        }
+        Files.write(file.toPath(), builder.toString().getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(expected.subList(expected.size() - 7000, expected.size()), FileUtil.tail(file, 7000, StandardCharsets.UTF_8));
+        Assert.assertEquals(expected.subList(12345, 12400), FileUtil.lines(file, 12345, 12400, StandardCharsets.UTF_8, null));
+
+        LineIndex index = FileUtil.lineIndex(file, 100, true);
+        Assert.assertTrue(indexFile.isFile());
+        Assert.assertEquals(expected.size(), index.getLineCount());
+        Assert.assertEquals(expected.subList(12345, 12400), FileUtil.lines(file, 12345, 12400, StandardCharsets.UTF_8, index));
+        Assert.assertEquals(expected.subList(49990, 50000), FileUtil.lines(file, 49990, 60000, StandardCharsets.UTF_8, index));
+        Assert.assertEquals(new ArrayList<String>(), FileUtil.lines(file, 60000, 60010, StandardCharsets.UTF_8, index));
+
+        // 追加后在保存的索引基础上继续建立
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            for (int i = 50000; i < 50250; i++) {
+                String line = "第" + i + "行";
+                expected.add(line);
+                out.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        LineIndex appended = FileUtil.lineIndex(file, 100, true);
+        Assert.assertEquals(expected.size(), appended.getLineCount());
+        Assert.assertEquals(expected.subList(50150, 50250), FileUtil.lines(file, 50150, 50300, StandardCharsets.UTF_8, appended));
+        Assert.assertEquals(expected.subList(12345, 12400), FileUtil.lines(file, 12345, 12400, StandardCharsets.UTF_8, appended));
+        Assert.assertEquals(appended.getOffsetCount(), FileUtil.lineIndex(file, 100, false).getOffsetCount());
+        Assert.assertEquals(appended.getLineCount(), LineIndex.read(indexFile).getLineCount());
+    }
+
+    private static class CountingProgress implements StreamProgress {
+        private int started;
+        private int finished;
+        private long last;
+        private int calls;
+
+        @Override
+        public void start() {
+            started++;
+        }
+
+        @Override
+        public void progress(long progressSize) {
+            calls++;
+            Assert.assertTrue(progressSize >= last);
+            last = progressSize;
+        }
+
+        @Override
+        public void finish() {
+            finished++;
+        }
+    }
+}
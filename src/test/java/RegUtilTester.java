@@ -0,0 +1,81 @@
+import com.zscp.master.util.RegUtil;
+import com.zscp.master.util.ValidUtil;
+import com.zscp.master.util.bean.KeywordMatcher;
+import com.zscp.master.util.bean.StreamMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.regex.Pattern;
+
+public class RegUtilTester {
+
+    @Test
+    public void testPatternCache() {
+        Pattern pattern = RegUtil.compile("a(\\d+)b");
+        long hits = RegUtil.getPatternCacheHitCount();
+        Assert.assertSame(pattern, RegUtil.compile("a(\\d+)b"));
+        Assert.assertNotSame(pattern, RegUtil.compile("a(\\d+)b", Pattern.DOTALL));
+        Assert.assertTrue(RegUtil.getPatternCacheHitCount() > hits);
+
+        Assert.assertEquals(2, RegUtil.countSubStrReg("a1b a22b", "a(\\d+)b"));
+        Assert.assertEquals("22", RegUtil.getMatchValue("a(\\d{2})b", "a1b a22b", 1));
+        Assert.assertEquals(2, RegUtil.getAllMatchValues("a(\\d+)b", "a1b a22b", 1, new ArrayList<String>()).size());
+        Assert.assertTrue(ValidUtil.isMatchRegex("\\d+", "123"));
+        Assert.assertTrue(ValidUtil.isPhoneNum("010-12345678"));
+        Assert.assertFalse(ValidUtil.isPhoneNum(null));
+    }
+
+    @Test
+    public void testStreamMatch() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            sb.append("line ").append(i).append(" id=").append(i * 7).append('\n');
+        }
+        String content = sb.toString();
+        Pattern pattern = Pattern.compile("id=(\\d+)");
+        List<String> expected = RegUtil.getAllMatchValues(pattern, content, 1, new ArrayList<String>());
+
+        List<String> actual = new ArrayList<String>();
+        long count = RegUtil.getAllMatchValues(pattern, new StringReader(content), 1, actual::add);
+        Assert.assertEquals(expected.size(), count);
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(expected, RegUtil.streamMatchValues(pattern, new StringReader(content), 1).collect(Collectors.toList()));
+
+        // 小窗口下跨越边界的匹配
+        StreamMatcher matcher = new StreamMatcher(pattern, new StringReader(content), 64, 16);
+        int i = 0;
+        while (matcher.find()) {
+            Assert.assertEquals(expected.get(i++), matcher.group(1));
+            Assert.assertEquals(content.substring((int) matcher.start(), (int) matcher.end()), matcher.group());
+        }
+        Assert.assertEquals(expected.size(), i);
+    }
+
+    @Test
+    public void testKeywordMatcher() {
+        KeywordMatcher matcher = new KeywordMatcher(Arrays.asList("he", "she", "his", "hers", "敏感词"), true, true);
+        Assert.assertEquals(Arrays.asList("she", "he", "hers"), matcher.findAll("uSHErs"));
+        Assert.assertEquals(4, matcher.count("ushers his"));
+        Assert.assertTrue(matcher.contains("这是敏感词"));
+        // 全角字符转半角后匹配
+        Assert.assertTrue(matcher.contains("ＨＩＳ"));
+        Assert.assertFalse(matcher.contains("hi"));
+
+        List<String> hits = new ArrayList<String>();
+        matcher.find("a敏感词b", (start, end, keyword) -> hits.add(start + "-" + end + ":" + keyword));
+        Assert.assertEquals(Arrays.asList("1-4:敏感词"), hits);
+
+        matcher.reload(Arrays.asList("hi"));
+        Assert.assertTrue(matcher.contains("hi"));
+        Assert.assertFalse(matcher.contains("she"));
+
+        KeywordMatcher caseSensitive = new KeywordMatcher(Arrays.asList("He"), false, false);
+        Assert.assertFalse(caseSensitive.contains("he ＨＥ"));
+        Assert.assertTrue(caseSensitive.contains("He"));
+    }
+}
@@ -1,4 +1,7 @@
+import com.zscp.master.util.HexUtil;
 import com.zscp.master.util.StringUtil;
+import com.zscp.master.util.bean.LRUCache;
+import com.zscp.master.util.bean.StrTemplate;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -13,4 +16,82 @@ public class StringUtilTester {
     public void testEndWithWrong(){
         Assert.assertEquals(StringUtil.endWith("abce","ce",true),false);
     }
+
+    @Test
+    public void testFormat() {
+        Assert.assertEquals("this is a for b", StringUtil.format("this is {} for {}", "a", "b"));
+        Assert.assertEquals("this is {} for a", StringUtil.format("this is \\{} for {}", "a", "b"));
+        Assert.assertEquals("this is \\a for b", StringUtil.format("this is \\\\{} for {}", "a", "b"));
+        Assert.assertEquals("a and {} \\{}", StringUtil.format("{} and {} \\{}", "a"));
+        Assert.assertEquals("no placeholder", StringUtil.format("no placeholder", "a"));
+    }
+
+    @Test
+    public void testTemplate() {
+        StrTemplate template = StringUtil.template("{}-{}");
+        Assert.assertSame(template, StringUtil.template("{}-{}"));
+        Assert.assertEquals("1-2", template.format(1, 2));
+        Assert.assertEquals(2, template.placeholderCount());
+    }
+
+    @Test
+    public void testLRUCacheEvictAfterReads() {
+        LRUCache<Integer, Integer> cache = new LRUCache<Integer, Integer>(100);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+        }
+        // 读取过的对象访问时间相同，淘汰时不能全部移除
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+        cache.put(100, 100);
+        Assert.assertEquals(75, cache.size());
+        Assert.assertEquals(Integer.valueOf(100), cache.get(100));
+    }
+
+    @Test
+    public void testHex() {
+        byte[] data = new byte[256];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        StringBuilder expected = new StringBuilder();
+        for (byte b : data) {
+            expected.append(String.format("%02X", b & 0xFF));
+        }
+        Assert.assertEquals(expected.toString(), StringUtil.parseByte2HexStr(data));
+        Assert.assertEquals(expected.toString().toLowerCase(), HexUtil.encodeHexStr(data));
+        Assert.assertArrayEquals(data, StringUtil.parseHexStr2Byte(expected.toString()));
+        Assert.assertArrayEquals(data, HexUtil.decodeHex(expected.toString().toLowerCase()));
+        Assert.assertArrayEquals(new byte[]{(byte) 0xAB}, StringUtil.parseHexStr2Byte("abc"));
+        Assert.assertNull(StringUtil.parseHexStr2Byte(""));
+        Assert.assertArrayEquals(new byte[0], StringUtil.parseHexStr2Byte("f"));
+        Assert.assertArrayEquals(new byte[]{0x0F}, StringUtil.parseHexStr2Byte("0Fg"));
+        for (String illegal : new String[]{"0g", "zz", "-1", "00 1"}) {
+            try {
+                StringUtil.parseHexStr2Byte(illegal);
+                Assert.fail(illegal);
+            } catch (NumberFormatException e) {
+                // 预期的异常
+            }
+        }
+
+        char[] chars = new char[6];
+        Assert.assertEquals(4, HexUtil.encodeHex(new byte[]{0, 0x1F, 0x7E}, 1, 2, chars, 1, false));
+        Assert.assertEquals("\u00001F7E\u0000", new String(chars));
+        byte[] ascii = new byte[4];
+        HexUtil.encodeHex(new byte[]{(byte) 0xC3, 0x0A}, 0, 2, ascii, 0, true);
+        Assert.assertEquals("c30a", new String(ascii, java.nio.charset.StandardCharsets.US_ASCII));
+        byte[] decoded = new byte[3];
+        Assert.assertEquals(2, HexUtil.decodeHex("xxC30a", 2, 6, decoded, 1));
+        Assert.assertArrayEquals(new byte[]{0, (byte) 0xC3, 0x0A}, decoded);
+        for (String illegal : new String[]{"0", "0g", "\uff10\uff11"}) {
+            try {
+                HexUtil.decodeHex(illegal);
+                Assert.fail(illegal);
+            } catch (IllegalArgumentException e) {
+                // 预期的异常
+            }
+        }
+    }
 }
@@ -0,0 +1,84 @@
+import com.zscp.master.util.ValidUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class ValidUtilTester {
+
+    @Test
+    public void testIsEmpty() {
+        Assert.assertTrue(ValidUtil.isEmpty((Object) null));
+        Assert.assertTrue(ValidUtil.isEmpty(""));
+        Assert.assertTrue(ValidUtil.isEmpty(" \t\r\n"));
+        Assert.assertTrue(ValidUtil.isEmpty(new StringBuilder("  ")));
+        Assert.assertFalse(ValidUtil.isEmpty("  a "));
+        Assert.assertFalse(ValidUtil.isEmpty((Object) "  a "));
+        Assert.assertFalse(ValidUtil.isEmpty(0));
+        Assert.assertTrue(ValidUtil.isEmpty(' '));
+        Assert.assertTrue(ValidUtil.isEmpty(new ArrayList<String>()));
+        Assert.assertFalse(ValidUtil.isEmpty(Collections.singletonList("")));
+        Assert.assertTrue(ValidUtil.isEmpty(new HashMap<String, String>()));
+        Assert.assertTrue(ValidUtil.isEmpty(new int[0]));
+        Assert.assertFalse(ValidUtil.isEmpty(new String[]{""}));
+        Assert.assertTrue(ValidUtil.isNotEmpty("a"));
+    }
+
+    @Test
+    public void testFormatValidators() {
+        Assert.assertTrue(ValidUtil.isMobile("13800138000"));
+        Assert.assertFalse(ValidUtil.isMobile("23800138000"));
+        Assert.assertFalse(ValidUtil.isMobile("1380013800"));
+        Assert.assertTrue(ValidUtil.isZipCode("100080"));
+        Assert.assertFalse(ValidUtil.isZipCode("10008a"));
+        Assert.assertTrue(ValidUtil.isUUID("4b8b5d40-6f2e-4a6c-9a10-2c5ee1d8c0b1"));
+        Assert.assertTrue(ValidUtil.isUUID("4b8b5d406f2e4a6c9a102c5ee1d8c0b1"));
+        Assert.assertFalse(ValidUtil.isUUID("4B8B5D40-6F2E-4A6C-9A10-2C5EE1D8C0B1"));
+        Assert.assertTrue(ValidUtil.isIpv4("192.168.0.1"));
+        Assert.assertTrue(ValidUtil.isIpv4("255.255.255.255"));
+        Assert.assertFalse(ValidUtil.isIpv4("256.1.1.1"));
+        Assert.assertFalse(ValidUtil.isIpv4("1.1.1"));
+        Assert.assertFalse(ValidUtil.isIpv4("1.1.1.1."));
+        Assert.assertTrue(ValidUtil.isCitizenId("11010519491231002X"));
+        Assert.assertTrue(ValidUtil.isCitizenId("110105194912310021"));
+        Assert.assertFalse(ValidUtil.isCitizenId("110105194913310021"));
+        Assert.assertTrue(ValidUtil.isCitizenId("11010519491231002x", true));
+        Assert.assertFalse(ValidUtil.isCitizenId("110105194912310021", true));
+        String[] values = {"13800138000", "100080", "192.168.0.1", "11010519491231002X", "1.1.1.1.1", "0.0.0.099"};
+        for (String value : values) {
+            Assert.assertEquals(ValidUtil.MOBILE.matcher(value).matches(), ValidUtil.isMobile(value));
+            Assert.assertEquals(ValidUtil.ZIP_CODE.matcher(value).matches(), ValidUtil.isZipCode(value));
+            Assert.assertEquals(ValidUtil.IPV4.matcher(value).matches(), ValidUtil.isIpv4(value));
+            Assert.assertEquals(ValidUtil.CITIZEN_ID.matcher(value).matches(), ValidUtil.isCitizenId(value));
+        }
+    }
+
+    @Test
+    public void testValidate() {
+        String[] values = new String[100000];
+        BitSet expected = new BitSet();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 7 == 0 ? "2380013" + (1000 + i % 9000) : "1380013" + (1000 + i % 9000);
+            if (false == ValidUtil.isMobile(values[i])) {
+                expected.set(i);
+            }
+        }
+        Assert.assertEquals(expected, ValidUtil.validate(values, ValidUtil::isMobile));
+        Assert.assertEquals(expected, ValidUtil.validate(values, ValidUtil::isMobile, ForkJoinPool.commonPool()));
+        List<String> list = new LinkedList<String>(Arrays.asList(values));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Assert.assertEquals(expected, ValidUtil.validate(list, ValidUtil::isMobile, pool));
+        } finally {
+            pool.shutdown();
+        }
+        Assert.assertTrue(ValidUtil.validate(new String[0], ValidUtil::isMobile).isEmpty());
+    }
+}